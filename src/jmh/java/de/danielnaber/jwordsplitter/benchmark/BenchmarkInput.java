@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Loads the words of the regression file, which serve as input for the benchmarks.
+ */
+final class BenchmarkInput {
+
+    static final String TEST_FILE = "/de/danielnaber/jwordsplitter/test-de-large.txt";
+
+    /** Number of words in {@link #TEST_FILE}, used for {@code @OperationsPerInvocation}. */
+    static final int WORD_COUNT = 4999;
+
+    private BenchmarkInput() {
+    }
+
+    /**
+     * @return the unsplit words of the regression file, in file order
+     */
+    static String[] loadWords() throws IOException {
+        List<String> words = new ArrayList<>();
+        try (InputStream is = BenchmarkInput.class.getResourceAsStream(TEST_FILE)) {
+            if (is == null) {
+                throw new IOException("Could not load " + TEST_FILE + " from classpath");
+            }
+            try (Scanner scanner = new Scanner(is, "utf-8")) {
+                while (scanner.hasNextLine()) {
+                    words.add(scanner.nextLine().replace(", ", ""));
+                }
+            }
+        }
+        if (words.size() != WORD_COUNT) {
+            throw new IllegalStateException("Expected " + WORD_COUNT + " words in " + TEST_FILE + ", got " + words.size());
+        }
+        return words.toArray(new String[0]);
+    }
+
+}
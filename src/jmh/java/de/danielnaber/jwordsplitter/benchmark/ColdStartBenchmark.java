@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.EmbeddedGermanDictionary;
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to the first split in a fresh JVM, i.e. including loading the embedded
+ * dictionary and the exceptions. Each fork measures a single call, so the result is the
+ * average over the forks. The {@code withPreload} variant simulates an application that
+ * starts loading the dictionary at startup and does some other work before its first split.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+
+    /** Time the simulated application spends on other startup work. */
+    private static final long OTHER_STARTUP_WORK_MILLIS = 50;
+
+    @Benchmark
+    public List<String> timeToFirstSplit() throws IOException, InterruptedException {
+        Thread.sleep(OTHER_STARTUP_WORK_MILLIS);
+        return new GermanWordSplitter(false).splitWord("Verhaltensstörung");
+    }
+
+    @Benchmark
+    public List<String> timeToFirstSplitWithPreload() throws IOException, InterruptedException {
+        EmbeddedGermanDictionary.preload();
+        Thread.sleep(OTHER_STARTUP_WORK_MILLIS);
+        return new GermanWordSplitter(false).splitWord("Verhaltensstörung");
+    }
+
+}
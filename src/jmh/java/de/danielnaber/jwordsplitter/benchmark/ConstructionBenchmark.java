@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.EmbeddedGermanDictionary;
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of a splitter with the embedded dictionary, which is loaded
+ * before the measurement. Run with {@code -prof gc} to see the allocated bytes per splitter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Setup
+    public void setup() {
+        EmbeddedGermanDictionary.getWords();
+    }
+
+    @Benchmark
+    public GermanWordSplitter constructor() throws IOException {
+        return new GermanWordSplitter(false);
+    }
+
+    @Benchmark
+    public GermanWordSplitter constructorWithException() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        splitter.addException("Verhaltensstörung", Arrays.asList("Verhaltens", "störung"));
+        return splitter;
+    }
+
+    @Benchmark
+    public GermanWordSplitter builder() throws IOException {
+        return GermanWordSplitter.builder().strictMode(false).build();
+    }
+
+}
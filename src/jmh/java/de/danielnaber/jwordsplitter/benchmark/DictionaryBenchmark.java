@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.CompiledDictionary;
+import de.danielnaber.jwordsplitter.EmbeddedGermanDictionary;
+import de.danielnaber.jwordsplitter.HashDictionary;
+import de.danielnaber.jwordsplitter.WordLookup;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dictionary backends: looks up every substring of the words of the regression
+ * file, like the splitter does. The retained heap of the backend with the embedded words
+ * is printed when the benchmark is set up (measured as the heap growth after a full GC,
+ * so it's only an estimate).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    @Param({"HashSet", "HashDictionary", "CompiledDictionary"})
+    public String backend;
+
+    private String[] words;
+    private WordLookup lookup;
+
+    @Setup
+    public void setup() throws IOException {
+        words = BenchmarkInput.loadWords();
+        List<String> dictWords = new ArrayList<>(EmbeddedGermanDictionary.getWords());
+        long heapBefore = usedHeap();
+        lookup = create(dictWords);
+        long heapAfter = usedHeap();
+        System.out.printf(Locale.ENGLISH, "%n%s with %d words: %.1f MB retained heap%n",
+                backend, dictWords.size(), (heapAfter - heapBefore) / 1024.0 / 1024.0);
+    }
+
+    private WordLookup create(List<String> dictWords) {
+        switch (backend) {
+            case "HashSet":
+                // copy the strings, as a set loaded from a file doesn't share them with anything:
+                Set<String> set = new HashSet<>();
+                for (String word : dictWords) {
+                    set.add(new String(word.toCharArray()));
+                }
+                return WordLookup.of(set);
+            case "HashDictionary":
+                return HashDictionary.of(dictWords);
+            case "CompiledDictionary":
+                return CompiledDictionary.compile(dictWords);
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public int isWord() {
+        int found = 0;
+        for (String word : words) {
+            for (int start = 0; start < word.length(); start++) {
+                for (int end = start + 1; end <= word.length(); end++) {
+                    if (lookup.isWord(word, start, end)) {
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+}
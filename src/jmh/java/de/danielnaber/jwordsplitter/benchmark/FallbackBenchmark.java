@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of falling back to non-strict mode for words that cannot be split
+ * in strict mode: a second splitter in non-strict mode (like {@code Example2}) and a single
+ * splitter with {@code nonStrictFallback(true)}. With {@code input=unsplittable}, "xyz" is
+ * appended to each word of the regression file, so most words need the fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FallbackBenchmark {
+
+    @Param({"compounds", "unsplittable"})
+    public String input;
+
+    private GermanWordSplitter strictSplitter;
+    private GermanWordSplitter nonStrictSplitter;
+    private GermanWordSplitter fallbackSplitter;
+    private String[] words;
+
+    @Setup
+    public void setup() throws IOException {
+        GermanWordSplitter.Builder builder = GermanWordSplitter.builder().hideInterfixCharacters(true);
+        strictSplitter = builder.build();
+        nonStrictSplitter = builder.strictMode(false).build();
+        fallbackSplitter = builder.strictMode(true).nonStrictFallback(true).build();
+        words = BenchmarkInput.loadWords();
+        if (input.equals("unsplittable")) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] = words[i] + "xyz";
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void twoSplitters(Blackhole bh) {
+        for (String word : words) {
+            List<String> parts = strictSplitter.splitWord(word);
+            if (parts.size() == 1) {
+                parts = nonStrictSplitter.splitWord(word);
+            }
+            bh.consume(parts);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void nonStrictFallback(Blackhole bh) {
+        for (String word : words) {
+            bh.consume(fallbackSplitter.splitWord(word));
+        }
+    }
+
+}
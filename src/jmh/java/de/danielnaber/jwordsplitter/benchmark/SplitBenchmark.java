@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.AbstractWordSplitter;
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import de.danielnaber.jwordsplitter.SplitResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot path of the splitter over all words of the regression file.
+ * One operation is the split of a single word. Run with the {@code benchmark}
+ * Maven profile, which also enables the GC profiler to report allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplitBenchmark {
+
+    @Param({"true", "false"})
+    public boolean strictMode;
+
+    @Param({"true", "false"})
+    public boolean hideInterfixCharacters;
+
+    @Param({"2", "3", "4"})
+    public int minimumWordLength;
+
+    private AbstractWordSplitter splitter;
+    private String[] words;
+    private final SplitResult result = new SplitResult();
+    private char[][] buffers;
+    private final int[] partOffsets = new int[64];
+
+    @Setup
+    public void setup() throws IOException {
+        splitter = new GermanWordSplitter(hideInterfixCharacters);
+        splitter.setStrictMode(strictMode);
+        splitter.setMinimumWordLength(minimumWordLength);
+        words = BenchmarkInput.loadWords();
+        buffers = new char[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            buffers[i] = words[i].toCharArray();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void splitWord(Blackhole bh) {
+        for (String word : words) {
+            bh.consume(splitter.splitWord(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void splitWordIntoResult(Blackhole bh) {
+        for (String word : words) {
+            bh.consume(splitter.splitWord(word, result).size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void splitCharBuffer(Blackhole bh) {
+        for (char[] buffer : buffers) {
+            bh.consume(splitter.splitWord(buffer, 0, buffer.length, partOffsets));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void getSubWords(Blackhole bh) {
+        for (String word : words) {
+            bh.consume(splitter.getSubWords(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public void getAllSplits(Blackhole bh) {
+        for (String word : words) {
+            bh.consume(splitter.getAllSplits(word));
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.benchmark;
+
+import de.danielnaber.jwordsplitter.AbstractWordSplitter;
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of {@code splitWords()} scales with the number of threads.
+ * One operation is the split of a single word of the regression file. The words are all
+ * different, so deduplication doesn't help here. Compare the results of the {@code threads}
+ * values up to the number of cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplitWordsBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private AbstractWordSplitter splitter;
+    private List<String> words;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() throws IOException {
+        splitter = GermanWordSplitter.builder().build();
+        words = Arrays.asList(BenchmarkInput.loadWords());
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInput.WORD_COUNT)
+    public List<List<String>> splitWords() {
+        return splitter.splitWords(words, pool);
+    }
+
+}
@@ -1,412 +1,1470 @@
-/*
- * Copyright 2004-2007 Sven Abels
- * Copyright 2012 Daniel Naber (www.danielnaber.de)
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package de.danielnaber.jwordsplitter;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.*;
-
-/**
- * This class can split compound words into their smallest parts (atoms). For example "Erhebungsfehler"
- * will be split into "erhebung" and "fehler", if "erhebung" and "fehler" are in the dictionary
- * and "erhebungsfehler" is not. Thus how words are split only depends on the contents of
- * the dictionary. A dictionary for German is included.
- *
- * <p>This is especially useful for German words but it will work with all languages.
- * The order of the words in the collection will be identical to their appearance in the
- * connected word. It's good to provide a large dictionary.
- *
- * <p>Please note: We don't expect to have any special chars here (!":;,.-_, etc.). Only a set of
- * characters and only one word.
- *
- * @author Daniel Naber
- */
-public abstract class AbstractWordSplitter {
-
-    protected abstract Set<String> getWordList(InputStream stream) throws IOException;
-    protected abstract Set<String> getWordList() throws IOException;
-    protected abstract GermanInterfixDisambiguator getDisambiguator();
-    protected abstract int getDefaultMinimumWordLength();
-    /** Interfix elements in lowercase, e.g. at least "s" for German. */
-    protected abstract Collection<String> getInterfixCharacters();
-
-    protected Set<String> words = null;
-
-    private final boolean hideInterfixCharacters;
-
-    private ExceptionSplits exceptionSplits = new ExceptionSplits();
-    private boolean strictMode = true;
-    private int minimumWordLength = getDefaultMinimumWordLength();
-    private int maximumWordLength = 70;
-
-    /**
-     * Create a word splitter that uses the embedded dictionary.
-     *
-     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
-     *  the connecting character (a.k.a. interfix)
-     */
-    public AbstractWordSplitter(boolean hideInterfixCharacters) throws IOException {
-        this.hideInterfixCharacters = hideInterfixCharacters;
-        words = getWordList();
-    }
-
-    /**
-     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
-     *  the connecting character (a.k.a. interfix)
-     * @param plainTextDict a stream of a text file with one word per line, to be used instead of the embedded dictionary,
-     *                       must be in UTF-8 format
-     */
-    public AbstractWordSplitter(boolean hideInterfixCharacters, InputStream plainTextDict) throws IOException {
-        this.hideInterfixCharacters = hideInterfixCharacters;
-        words = getWordList(plainTextDict);
-    }
-
-    /**
-     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
-     *  the connecting character (a.k.a. interfix)
-     * @param plainTextDict a stream of a text file with one word per line, to be used instead of the embedded dictionary,
-     *                       must be in UTF-8 format
-     */
-    public AbstractWordSplitter(boolean hideInterfixCharacters, File plainTextDict) throws IOException {
-        this.hideInterfixCharacters = hideInterfixCharacters;
-        words = getWordList(plainTextDict);
-    }
-
-    /**
-     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
-     *  the connecting character (a.k.a. interfix)
-     * @param words the compound part words
-     * @since 4.1
-     */
-    public AbstractWordSplitter(boolean hideInterfixCharacters, Set<String> words) throws IOException {
-        this.hideInterfixCharacters = hideInterfixCharacters;
-        this.words = words;
-    }
-
-    private Set<String> getWordList(File file) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            return getWordList(fis);
-        }
-    }
-
-    public void setMinimumWordLength(int len) {
-        this.minimumWordLength = len;
-    }
-
-    /**
-     * Words longer than this will throw an {@code IllegalArgumentException} to avoid extremely long
-     * processing times. The default is 70.
-     * @since 4.2
-     */
-    public void setMaximumWordLength(int len) {
-        this.maximumWordLength = len;
-    }
-
-    /**
-     * @param filename UTF-8 encoded file with exceptions in the classpath, one exception per line, using pipe as delimiter.
-     *   Example: <tt>Pilot|sendung</tt>
-     */
-    public void setExceptionFile(String filename) throws IOException {
-        exceptionSplits = new ExceptionSplits(filename);
-    }
-
-    /**
-     * @param completeWord the word for which an exception is to be defined (will be considered case-insensitive)
-     * @param wordParts the parts in which the word is to be split (use a list with a single element if the word should not be split)
-     */
-    public void addException(String completeWord, List<String> wordParts) {
-        exceptionSplits.addSplit(completeWord.toLowerCase(), wordParts);
-    }
-
-    /**
-     * When set to true, words will only be split if all parts are words.
-     * Otherwise the splitting result might contain parts that are not words.
-     */
-    public void setStrictMode(boolean strictMode) {
-        this.strictMode = strictMode;
-    }
-
-    /**
-     * Experimental: Split a word with unknown parts, typically because one part
-     * has a typo. This could be used to split three-part compounds where one
-     * part has a typo (the caller is then responsible for making useful corrections
-     * out of these parts). Results are returned in no specific order.
-     * @since 4.0
-     */
-    public List<List<String>> getAllSplits(String word) {
-        if (word.length() > maximumWordLength) {
-            throw new InputTooLongException("Input too long (" + word.length() + " characters), maximum is " +
-                    maximumWordLength + " characters to avoid potentially long processing times: '" + word + "'");
-        }
-        try {
-            List<List<String>> result1 = getAllSplits(word, true);
-            List<List<String>> result2 = getAllSplits(word, false);
-            List<List<String>> result = new ArrayList<>(result1);
-            for (List<String> split : result2) {
-                if (!result.contains(split)) {
-                    result.add(split);
-                }
-            }
-            return result;
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    List<List<String>> getAllSplits(String word, boolean fromLeft) throws InterruptedException {
-        List<List<String>> result = new ArrayList<>();
-        int start = fromLeft ? minimumWordLength : word.length() - minimumWordLength;
-        for (int i = start; isLoopEnd(fromLeft, i, word);) {
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
-            }
-            String left = word.substring(0, i);
-            String right = word.substring(i, word.length());
-            String relevantWord = fromLeft ? left : right;
-            boolean isSimpleWord = isSimpleWord(relevantWord);
-            //System.out.println(i + ". " + left + " " + right + " -> " + relevantWord + " " + (isSimpleWord ? "***" : ""));
-            if (isSimpleWord) {
-                result.add(Arrays.asList(left, right));
-                List<List<String>> otherSplits = getAllSplits(fromLeft ? right : left);
-                if (otherSplits.size() > 0) {
-                    for (List<String> otherSplit : otherSplits) {
-                        List<String> sub = new ArrayList<>();
-                        if (fromLeft) {
-                            sub.add(left);
-                            sub.addAll(otherSplit);
-                        } else {
-                            sub.addAll(otherSplit);
-                            sub.add(right);
-                        }
-                        result.add(new ArrayList<>(sub));
-                    }
-                }
-            }
-            i = fromLeft ? i + 1 : i - 1;
-        }
-        return result;
-    }
-
-    private boolean isLoopEnd(boolean fromLeft, int i, String word) {
-        if (fromLeft) {
-            return i < word.length() - minimumWordLength;
-        } else {
-            return i > minimumWordLength;
-        }
-    }
-
-    /**
-     * @since 4.2
-     */
-    public List<String> getSubWords(String word) {
-        return splitWord(word, true);
-    }
-
-    public List<String> splitWord(String word) {
-        return splitWord(word, false);
-    }
-
-    /**
-     * @return a list of compound parts, with one element (the input word itself) if the input
-     *   could not be split; returns an empty list if the input is {@code null}
-     * @since 4.2
-     */
-    public List<String> splitWord(String word, boolean collectSubwords) {
-        if (word == null) {
-            return Collections.emptyList();
-        }
-        if (word.length() > maximumWordLength) {
-            throw new InputTooLongException("Input too long (" + word.length() + " characters), maximum is " +
-                    maximumWordLength + " characters to avoid potentially long processing times: '" + word + "'");
-        }
-        String trimmedWord = word.trim();
-        List<String> exceptionSplit = exceptionSplits.getExceptionSplitOrNull(trimmedWord);
-        if (exceptionSplit != null) {
-            return exceptionSplit;
-        }
-        List<String> parts = split(trimmedWord, false, collectSubwords);
-        if (parts == null) {
-            return Collections.singletonList(trimmedWord);
-        }
-        List<String> disambiguatedParts = getDisambiguator().disambiguate(parts);
-        cleanLeadingAndTrailingHyphens(disambiguatedParts);
-        return disambiguatedParts;
-    }
-
-    private void cleanLeadingAndTrailingHyphens(List<String> disambiguatedParts) {
-        for (int i = 0; i < disambiguatedParts.size(); i++) {
-            String element = disambiguatedParts.get(i);
-            if (element.startsWith("-")) {
-                disambiguatedParts.set(i, element.substring(1));
-            }
-            if (element.endsWith("-")) {
-                disambiguatedParts.set(i, element.substring(0, element.length() - 1));
-            }
-        }
-    }
-
-    private List<String> split(String word, boolean allowInterfixRemoval, boolean collectSubwords) {
-        List<String> parts = exceptionSplits.getExceptionSplitOrNull(word);
-        if (parts != null) {
-            return parts;
-        }
-        String lcWord = word.toLowerCase();
-        String removableInterfix = findInterfixOrNull(lcWord);
-        String wordWithoutInterfix = removeInterfix(word, removableInterfix);
-        boolean canInterfixBeRemoved = removableInterfix != null && allowInterfixRemoval;
-
-        if (isSimpleWord(word) && !collectSubwords) {
-            parts = Collections.singletonList(word);
-        } else if (canInterfixBeRemoved && isSimpleWord(wordWithoutInterfix)) {
-            if (hideInterfixCharacters) {
-                parts = Arrays.asList(wordWithoutInterfix);
-            } else {
-                parts = Arrays.asList(wordWithoutInterfix, removableInterfix);
-            }
-        } else {
-            parts = splitFromRight(word, collectSubwords);
-
-            if (parts == null && isSimpleWord(word)) {
-                parts = new ArrayList<>();
-                parts.add(word);
-            } else if (parts != null && isSimpleWord(word) && !parts.contains(word)) {
-                parts.add(word);
-            }
-
-            if (parts == null && endsWithInterfix(lcWord)) {
-                parts = splitFromRight(wordWithoutInterfix, collectSubwords);
-                if (parts != null && !hideInterfixCharacters) {
-                    parts.add(removableInterfix);
-                }
-            }
-        }
-        return parts;
-    }
-
-    private List<String> splitFromRight(String word, boolean collectSubwords) {
-        List<String> parts = exceptionSplits.getExceptionSplitOrNull(word);
-        if (parts != null) {
-            return parts;
-        }
-
-        for (int i = word.length() - minimumWordLength; i >= minimumWordLength; i--) {
-            String leftPart = word.substring(0, i);
-            String rightPart = word.substring(i);
-            //System.out.println(word  + " -> " + leftPart + " + " + rightPart);
-            if (!strictMode) {
-                List<String> exceptionSplit = getExceptionSplitOrNull(rightPart, leftPart);
-                if (exceptionSplit != null) {
-                    return exceptionSplit;
-                }
-            }
-            if (isSimpleWord(rightPart)) {
-                List<String> leftPartParts = split(leftPart, true, collectSubwords);
-                boolean isLeftPartAWord = leftPartParts != null;
-                if (isLeftPartAWord) {
-                    if (collectSubwords) {
-                        if (parts == null) {
-                            parts = new ArrayList<>();
-                        }
-                        for (String leftPartPart : leftPartParts) {
-                            if (!parts.contains(leftPartPart)) {
-                                parts.add(leftPartPart);
-                            }
-                        }
-                        if (!parts.contains(rightPart)) {
-                            parts.add(rightPart);
-                        }
-                        List<String> rightPartExceptions = exceptionSplits.getExceptionSplitOrNull(rightPart);
-                        if (rightPartExceptions != null) {
-                            for (String exception : rightPartExceptions) {
-                                if (!parts.contains(exception)) {
-                                    parts.add(exception);
-                                }
-                            }
-                        }
-                    } else {
-                        parts = new ArrayList<>(leftPartParts);
-                        parts.add(rightPart);
-                    }
-                } else if (!strictMode) {
-                    parts = new ArrayList<>();
-                    parts.add(leftPart);
-                    parts.add(rightPart);
-                }
-            } else if (!strictMode) {
-                if (isSimpleWord(leftPart)) {
-                    parts = new ArrayList<>();
-                    parts.add(leftPart);
-                    parts.add(rightPart);
-                }
-            }
-        }
-        return parts;
-    }
-
-    private List<String> getExceptionSplitOrNull(String rightPart, String leftPart) {
-        List<String> exceptionSplit = exceptionSplits.getExceptionSplitOrNull(rightPart);
-        if (exceptionSplit != null) {
-            List<String> parts = new ArrayList<>();
-            parts.add(leftPart);
-            parts.addAll(exceptionSplit);
-            return parts;
-        }
-        List<String> exceptionSplit2 = exceptionSplits.getExceptionSplitOrNull(leftPart);
-        if (exceptionSplit2 != null) {
-            List<String> parts = new ArrayList<>();
-            parts.addAll(exceptionSplit2);
-            parts.add(rightPart);
-            return parts;
-        }
-        return null;
-    }
-
-    private String findInterfixOrNull(String word) {
-        Collection<String> interfixes = getInterfixCharacters();
-        String lcWord = word.toLowerCase();
-        for (String interfix : interfixes) {
-            if (lcWord.endsWith(interfix)) {
-                return interfix;
-            }
-        }
-        return null;
-    }
-
-    private boolean endsWithInterfix(String word) {
-        Collection<String> interfixes = getInterfixCharacters();
-        for (String interfix : interfixes) {
-            if (word.endsWith(interfix)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String removeInterfix(String word, String interfixOrNull) {
-        if (interfixOrNull != null) {
-            return word.substring(0, word.length() - interfixOrNull.length());
-        }
-        return word;
-    }
-
-    private boolean isSimpleWord(String part) {
-        return part.length() >= minimumWordLength && words.contains(part.toLowerCase());
-    }
-
-}
+/*
+ * Copyright 2004-2007 Sven Abels
+ * Copyright 2012 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class can split compound words into their smallest parts (atoms). For example "Erhebungsfehler"
+ * will be split into "erhebung" and "fehler", if "erhebung" and "fehler" are in the dictionary
+ * and "erhebungsfehler" is not. Thus how words are split only depends on the contents of
+ * the dictionary. A dictionary for German is included.
+ *
+ * <p>This is especially useful for German words but it will work with all languages.
+ * The order of the words in the collection will be identical to their appearance in the
+ * connected word. It's good to provide a large dictionary.
+ *
+ * <p>Please note: We don't expect to have any special chars here (!":;,.-_, etc.). Only a set of
+ * characters and only one word. To find and split the compounds in a text with punctuation,
+ * use {@link #splitText(CharSequence)}.
+ *
+ * <p>Splitting doesn't modify the splitter, so an instance can be shared by several threads
+ * as long as it isn't configured with one of the setters anymore after it has been shared.
+ * Splitters created with {@link GermanWordSplitter#builder()} can't be modified at all and
+ * are thread-safe.
+ *
+ * @author Daniel Naber
+ */
+public abstract class AbstractWordSplitter {
+
+    /** The default of {@link #setMaximumWordLength(int)}. */
+    static final int DEFAULT_MAXIMUM_WORD_LENGTH = 300;
+
+    protected abstract Set<String> getWordList(InputStream stream) throws IOException;
+    protected abstract Set<String> getWordList() throws IOException;
+    protected abstract GermanInterfixDisambiguator getDisambiguator();
+    protected abstract int getDefaultMinimumWordLength();
+    /** Interfix elements in lowercase, e.g. at least "s" for German. */
+    protected abstract Collection<String> getInterfixCharacters();
+
+    /**
+     * The dictionary. Lookups go through {@link #wordLookup}, which is created from it. Updates replace
+     * the set and the lookup, they never modify them, so splits running at the same time aren't affected.
+     */
+    protected volatile Set<String> words = null;
+    private volatile WordLookup wordLookup;
+
+    private final boolean hideInterfixCharacters;
+
+    /** The exceptions, replaced by a modified copy on updates (they may be shared with other splitters). */
+    private volatile ExceptionSplits exceptionSplits = new ExceptionSplits();
+    /** Serializes updates of {@link #words} and {@link #exceptionSplits}, readers don't lock. */
+    private final Object updateLock = new Object();
+    private boolean strictMode = true;
+    private boolean nonStrictFallback = false;
+    private int minimumWordLength = getDefaultMinimumWordLength();
+    private final String[] interfixes = getInterfixCharacters().toArray(new String[0]);
+    private int maximumWordLength = DEFAULT_MAXIMUM_WORD_LENGTH;
+    /** Whether this splitter has been created by a builder and cannot be modified. */
+    private final boolean immutable;
+    private volatile SplitCache cache;
+    /** The statistics, {@code null} if they're disabled. */
+    private volatile StatisticsRecorder statistics;
+
+    /**
+     * Create a word splitter that uses the embedded dictionary.
+     *
+     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
+     *  the connecting character (a.k.a. interfix)
+     */
+    public AbstractWordSplitter(boolean hideInterfixCharacters) throws IOException {
+        this.hideInterfixCharacters = hideInterfixCharacters;
+        this.immutable = false;
+        words = getWordList();
+        wordLookup = WordLookup.of(words);
+    }
+
+    /**
+     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
+     *  the connecting character (a.k.a. interfix)
+     * @param plainTextDict a stream of a text file with one word per line, to be used instead of the embedded dictionary,
+     *                       must be in UTF-8 format. Since 4.8, this can also be a {@link CompiledDictionary}.
+     */
+    public AbstractWordSplitter(boolean hideInterfixCharacters, InputStream plainTextDict) throws IOException {
+        this.hideInterfixCharacters = hideInterfixCharacters;
+        this.immutable = false;
+        words = loadWordList(plainTextDict);
+        wordLookup = WordLookup.of(words);
+    }
+
+    /**
+     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
+     *  the connecting character (a.k.a. interfix)
+     * @param plainTextDict a text file with one word per line, to be used instead of the embedded dictionary,
+     *                       must be in UTF-8 format. Since 4.8, this can also be a {@link CompiledDictionary}
+     *                       file, which is memory-mapped so that all processes using it share its memory.
+     */
+    public AbstractWordSplitter(boolean hideInterfixCharacters, File plainTextDict) throws IOException {
+        this.hideInterfixCharacters = hideInterfixCharacters;
+        this.immutable = false;
+        words = getWordList(plainTextDict);
+        wordLookup = WordLookup.of(words);
+    }
+
+    /**
+     * @param hideInterfixCharacters whether the word parts returned by {@link #splitWord(String)} still contain
+     *  the connecting character (a.k.a. interfix)
+     * @param words the compound part words
+     * @since 4.1
+     */
+    public AbstractWordSplitter(boolean hideInterfixCharacters, Set<String> words) throws IOException {
+        this.hideInterfixCharacters = hideInterfixCharacters;
+        this.words = words;
+        this.wordLookup = WordLookup.of(words);
+        this.immutable = false;
+    }
+
+    /**
+     * Create a splitter that cannot be modified, used by builders.
+     */
+    AbstractWordSplitter(boolean hideInterfixCharacters, Set<String> words, ExceptionSplits exceptionSplits,
+                         boolean strictMode, boolean nonStrictFallback, int minimumWordLength, int maximumWordLength,
+                         int cacheSize, boolean statisticsEnabled) {
+        this.hideInterfixCharacters = hideInterfixCharacters;
+        this.words = words;
+        this.wordLookup = WordLookup.of(words);
+        this.exceptionSplits = exceptionSplits;
+        this.strictMode = strictMode;
+        this.nonStrictFallback = nonStrictFallback;
+        this.minimumWordLength = minimumWordLength;
+        this.maximumWordLength = maximumWordLength;
+        this.cache = cacheSize > 0 ? new SplitCache(cacheSize) : null;
+        this.statistics = statisticsEnabled ? new StatisticsRecorder() : null;
+        this.immutable = true;
+    }
+
+    private Set<String> getWordList(File file) throws IOException {
+        return getWordList(file, this::getWordList);
+    }
+
+    /**
+     * Load a dictionary file: a {@link CompiledDictionary} is memory-mapped, other files are parsed by {@code parser}.
+     */
+    static Set<String> getWordList(File file, WordListParser parser) throws IOException {
+        if (CompiledDictionary.isCompiled(file.toPath())) {
+            return CompiledDictionary.map(file.toPath());
+        }
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return parser.parse(fis);
+        }
+    }
+
+    /**
+     * Creates the dictionary from a plain text word list.
+     */
+    interface WordListParser {
+        Set<String> parse(InputStream stream) throws IOException;
+    }
+
+    private Set<String> loadWordList(InputStream stream) throws IOException {
+        InputStream in = stream.markSupported() ? stream : new BufferedInputStream(stream);
+        if (CompiledDictionary.isCompiled(in)) {
+            return CompiledDictionary.read(in);
+        }
+        return getWordList(in);
+    }
+
+    public void setMinimumWordLength(int len) {
+        checkMutable();
+        this.minimumWordLength = len;
+        clearCache();
+    }
+
+    /**
+     * Words longer than this will throw an {@code IllegalArgumentException} to avoid extremely long
+     * processing times. The default is 300 (it used to be 70 before version 4.8). Note that the
+     * number of results of {@link #getAllSplits(String)} can grow exponentially with the length of the input.
+     * @since 4.2
+     */
+    public void setMaximumWordLength(int len) {
+        checkMutable();
+        this.maximumWordLength = len;
+    }
+
+    /**
+     * @param filename UTF-8 encoded file with exceptions in the classpath, one exception per line, using pipe as delimiter.
+     *   Example: <tt>Pilot|sendung</tt>
+     */
+    public void setExceptionFile(String filename) throws IOException {
+        checkMutable();
+        ExceptionSplits loaded = ExceptionSplits.load(filename);
+        synchronized (updateLock) {
+            exceptionSplits = loaded;
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Add an exception, or replace the exception for the word. Like the other updates of the dictionary
+     * and the exceptions, this can be called while other threads split words: they see the exceptions
+     * either without or with the new one.
+     * @param completeWord the word for which an exception is to be defined (will be considered case-insensitive)
+     * @param wordParts the parts in which the word is to be split (use a list with a single element if the word should not be split)
+     */
+    public void addException(String completeWord, List<String> wordParts) {
+        checkMutable();
+        synchronized (updateLock) {
+            ExceptionSplits updated = exceptionSplits.copy();
+            updated.addSplit(completeWord, wordParts);
+            exceptionSplits = updated;
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Remove the exception for the word (compared case-insensitively), if any.
+     * @see #addException(String, List)
+     * @since 4.8
+     */
+    public void removeException(String completeWord) {
+        addException(completeWord, null);
+    }
+
+    /**
+     * Add words to the dictionary. This can be called while other threads split words: they see the
+     * dictionary either without or with the new words. The words are added to a {@link LayeredDictionary}
+     * on top of the previous dictionary, which isn't copied. The layer is copied, so adding many words
+     * at once is faster than adding them one by one. The words are lost when the dictionary is replaced,
+     * e.g. by {@link #setWords(Set)} or when a file watched with {@link #watchDictionary(File)} changes.
+     * @since 4.8
+     */
+    public void addWords(Collection<String> newWords) {
+        checkMutable();
+        synchronized (updateLock) {
+            replaceWords(LayeredDictionary.on(words).withAdded(newWords));
+        }
+    }
+
+    /**
+     * Remove words (compared case-insensitively) from the dictionary.
+     * @see #addWords(Collection)
+     * @since 4.8
+     */
+    public void removeWords(Collection<String> oldWords) {
+        checkMutable();
+        synchronized (updateLock) {
+            replaceWords(LayeredDictionary.on(words).withRemoved(oldWords));
+        }
+    }
+
+    /**
+     * Replace the dictionary. The set must not be modified afterwards.
+     * @see #addWords(Collection)
+     * @since 4.8
+     */
+    public void setWords(Set<String> newWords) {
+        checkMutable();
+        synchronized (updateLock) {
+            replaceWords(Objects.requireNonNull(newWords));
+        }
+    }
+
+    /**
+     * Use the words of the file as the dictionary, like the {@code File} constructor, and load them again
+     * whenever the file changes. This way, changes of the word list are used within seconds, without
+     * interrupting splits running at the same time. If the file cannot be loaded, the previous words are kept.
+     * A {@link CompiledDictionary} file is read into memory instead of being memory-mapped, so it may be
+     * rewritten in place.
+     *
+     * <p>Each load replaces the dictionary like {@link #setWords(Set)}: words added or removed with
+     * {@link #addWords(Collection)} or {@link #removeWords(Collection)} before are lost, so changes that
+     * should be kept have to be made in the file.
+     * @return the watcher, close it to stop watching the file
+     * @since 4.8
+     */
+    public DictionaryWatcher watchDictionary(File plainTextDict) throws IOException {
+        checkMutable();
+        setWords(readWordList(plainTextDict));
+        return new DictionaryWatcher(plainTextDict.toPath(), () -> setWords(readWordList(plainTextDict)));
+    }
+
+    /**
+     * Like {@link #getWordList(File)}, but a compiled dictionary is read instead of being mapped, as
+     * changes of a mapped file would affect the lookups of splits running at the same time.
+     */
+    private Set<String> readWordList(File file) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return loadWordList(fis);
+        }
+    }
+
+    private void replaceWords(Set<String> newWords) {
+        words = newWords;
+        wordLookup = WordLookup.of(newWords);
+        invalidateCache();
+    }
+
+    /**
+     * Replace the cache by an empty one after an update. Unlike clearing it, this makes sure that splits
+     * that started before the update don't add their results to the new cache.
+     */
+    private void invalidateCache() {
+        SplitCache cache = this.cache;
+        if (cache != null) {
+            this.cache = cache.emptyCopy();
+        }
+    }
+
+    /**
+     * When set to true, words will only be split if all parts are words.
+     * Otherwise the splitting result might contain parts that are not words.
+     */
+    public void setStrictMode(boolean strictMode) {
+        checkMutable();
+        this.strictMode = strictMode;
+        clearCache();
+    }
+
+    /**
+     * When set to true and strict mode is enabled, words that cannot be split in strict mode are
+     * split like in non-strict mode. The result is the same as using a second splitter in non-strict
+     * mode for the words that are returned unsplit (see {@code Example2}), but it's faster, as the
+     * words found in the dictionary during the strict search are re-used by the non-strict one.
+     * The default is false.
+     * @since 4.8
+     */
+    public void setNonStrictFallback(boolean nonStrictFallback) {
+        checkMutable();
+        this.nonStrictFallback = nonStrictFallback;
+        clearCache();
+    }
+
+    /**
+     * Cache the results of {@link #splitWord(String)} and {@link #getSubWords(String)} for up to
+     * {@code maximumSize} different inputs, least recently used inputs are removed first. This helps
+     * if the same words are split again and again, as it's usually the case for real text. With
+     * a cache, the returned lists cannot be modified. Changing the configuration of the splitter
+     * clears the cache. The default is no cache.
+     * @param maximumSize the maximum number of inputs whose results are cached, 0 to disable the cache
+     * @since 4.8
+     */
+    public void setCacheSize(int maximumSize) {
+        checkMutable();
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maximumSize);
+        }
+        cache = maximumSize > 0 ? new SplitCache(maximumSize) : null;
+    }
+
+    /**
+     * @return the counters of the cache configured with {@link #setCacheSize(int)}, all 0 if there's no cache
+     * @since 4.8
+     */
+    public CacheStats getCacheStats() {
+        SplitCache cache = this.cache;
+        return cache != null ? cache.getStats() : new CacheStats(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Collect statistics about the calls of {@link #splitWord(String)} and {@link #getSubWords(String)},
+     * e.g. for monitoring in production. Disabling statistics discards the statistics collected so far.
+     * The default is disabled, which has no measurable overhead.
+     * @see #getStatistics()
+     * @see #registerStatisticsMBean(String)
+     * @since 4.8
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        checkMutable();
+        if (enabled != (statistics != null)) {
+            statistics = enabled ? new StatisticsRecorder() : null;
+        }
+    }
+
+    /**
+     * @return the statistics collected since they have been enabled or reset, all 0 if they're disabled
+     * @since 4.8
+     */
+    public SplitStatistics getStatistics() {
+        StatisticsRecorder statistics = this.statistics;
+        return (statistics != null ? statistics : new StatisticsRecorder()).getStatistics();
+    }
+
+    /**
+     * Register an MBean with the platform MBean server that shows the {@linkplain #getStatistics() statistics}
+     * of this splitter, as {@code de.danielnaber.jwordsplitter:type=WordSplitter,name=<name>}. Resetting the
+     * statistics via JMX is possible even if the splitter has been created by a builder.
+     * @return the name of the MBean, which can be used to unregister it
+     * @see SplitStatisticsMXBean
+     * @since 4.8
+     */
+    public ObjectName registerStatisticsMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("de.danielnaber.jwordsplitter:type=WordSplitter,name=" + ObjectName.quote(name));
+        SplitStatisticsMXBean mbean = new SplitStatisticsMXBean() {
+            @Override
+            public boolean isStatisticsEnabled() {
+                return statistics != null;
+            }
+            @Override
+            public SplitStatistics getStatistics() {
+                return AbstractWordSplitter.this.getStatistics();
+            }
+            @Override
+            public void resetStatistics() {
+                if (statistics != null) {
+                    statistics = new StatisticsRecorder();
+                }
+            }
+        };
+        ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+        return objectName;
+    }
+
+    private void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("This splitter has been created by a builder and cannot be modified");
+        }
+    }
+
+    /**
+     * Experimental: Split a word with unknown parts, typically because one part
+     * has a typo. This could be used to split three-part compounds where one
+     * part has a typo (the caller is then responsible for making useful corrections
+     * out of these parts). Results are returned in no specific order.
+     * The number of results can grow exponentially with the length of the input, consider
+     * using {@link #iterateAllSplits(String)} if you don't need all of them.
+     * @since 4.0
+     */
+    public List<List<String>> getAllSplits(String word) {
+        return getAllSplits(word, null);
+    }
+
+    /**
+     * Like {@link #getAllSplits(String)}, but stops looking for splits when the budget is used up
+     * and returns the splits found so far.
+     * @since 4.8
+     */
+    public List<List<String>> getAllSplits(String word, SplitBudget budget) {
+        Object event = SplitEvents.INSTANCE.begin();
+        WordLattice lattice = createLattice(word, budget);
+        List<List<String>> result = new ArrayList<>();
+        Iterator<List<String>> splits = lattice.splits();
+        while (splits.hasNext()) {
+            result.add(splits.next());
+        }
+        if (event != null) {
+            SplitEvents.INSTANCE.commit(event, "getAllSplits", word, result.size(), lattice.getProbeCount(), strictMode);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #getAllSplits(String)}, but the splits are computed on demand, so
+     * callers that only need some of them can stop early. The splits are returned in
+     * the same order as by {@link #getAllSplits(String)}, without duplicates.
+     * @since 4.8
+     */
+    public Iterator<List<String>> iterateAllSplits(String word) {
+        return createLattice(word, null).splits();
+    }
+
+    /**
+     * Like {@link #iterateAllSplits(String)}, but the iteration ends when the budget is used up. The time
+     * of the budget starts when this method is called.
+     * @since 4.8
+     */
+    public Iterator<List<String>> iterateAllSplits(String word, SplitBudget budget) {
+        return createLattice(word, budget).splits();
+    }
+
+    private WordLattice createLattice(String word, SplitBudget budget) {
+        if (word.length() > maximumWordLength) {
+            recordInputTooLong();
+            throw new InputTooLongException("Input too long (" + word.length() + " characters), maximum is " +
+                    maximumWordLength + " characters to avoid potentially long processing times: '" + word + "'");
+        }
+        return new WordLattice(word, wordLookup, minimumWordLength, budget);
+    }
+
+    /**
+     * Like {@link #iterateAllSplits(String)}, but returns a sequential stream.
+     * @since 4.8
+     */
+    public Stream<List<String>> streamAllSplits(String word) {
+        Iterator<List<String>> splits = iterateAllSplits(word);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(splits,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @since 4.2
+     */
+    public List<String> getSubWords(String word) {
+        return splitWord(word, true);
+    }
+
+    /**
+     * Like {@link #getSubWords(String)}, but with a limit on the work done.
+     * @see #splitWord(String, SplitBudget)
+     * @since 4.8
+     */
+    public List<String> getSubWords(String word, SplitBudget budget) {
+        return splitWord(word, true, Objects.requireNonNull(budget));
+    }
+
+    public List<String> splitWord(String word) {
+        return splitWord(word, false);
+    }
+
+    /**
+     * Like {@link #splitWord(String)}, but with a limit on the work done: when the budget is used up,
+     * the best split found so far is returned, or the unsplit word. Such incomplete results are
+     * not added to the cache.
+     * @since 4.8
+     */
+    public List<String> splitWord(String word, SplitBudget budget) {
+        return splitWord(word, false, Objects.requireNonNull(budget));
+    }
+
+    /**
+     * Like {@link #splitWord(String)}, but the parts are stored as offsets into {@code word} in the given
+     * result, which can be re-used for the next call. Unless the strings of the parts are requested, this
+     * doesn't allocate memory. The cache isn't used.
+     * @return {@code result}
+     * @since 4.8
+     */
+    public SplitResult splitWord(String word, SplitResult result) {
+        splitWord(word, false, null, Objects.requireNonNull(result));
+        return result;
+    }
+
+    /**
+     * Like {@link #splitWord(String)}, but for the characters from {@code offset} to {@code offset + length}
+     * of the buffer, e.g. the term buffer of a search engine's tokenizer. The offsets of the parts in the
+     * buffer are stored in {@code partOffsets}: the start offset of part {@code i} at index {@code 2 * i}, its
+     * end offset at index {@code 2 * i + 1}. See {@link SplitResult} for how interfixes are handled.
+     * This doesn't allocate memory, so it can be called for every token of a text. The cache isn't used.
+     * @param partOffsets the array for the offsets; if it's too short for all parts, only the
+     *   offsets of the parts that fit are stored
+     * @return the number of parts, which is 1 if the input could not be split
+     * @since 4.8
+     */
+    public int splitWord(char[] buffer, int offset, int length, int[] partOffsets) {
+        if (offset < 0 || length < 0 || length > buffer.length - offset) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", buffer length " + buffer.length);
+        }
+        SplitMemo memo = MEMO.get();
+        SplitResult result = memo.result;
+        try {
+            splitWord(memo.chars.set(buffer, offset, length), false, null, result);
+            int partCount = result.size();
+            for (int i = 0; i < partCount && 2 * i + 1 < partOffsets.length; i++) {
+                partOffsets[2 * i] = offset + result.getStart(i);
+                partOffsets[2 * i + 1] = offset + result.getEnd(i);
+            }
+            return partCount;
+        } finally {
+            result.reset("");
+            memo.chars.set(null, 0, 0);
+        }
+    }
+
+    /**
+     * Like {@link #splitWord(String, SplitResult)}, but with a limit on the work done.
+     * @see #splitWord(String, SplitBudget)
+     * @since 4.8
+     */
+    public SplitResult splitWord(String word, SplitResult result, SplitBudget budget) {
+        splitWord(word, false, Objects.requireNonNull(budget), Objects.requireNonNull(result));
+        return result;
+    }
+
+    /**
+     * Split several words in parallel on the common {@code ForkJoinPool}.
+     * @see #splitWords(Collection, ForkJoinPool)
+     * @since 4.8
+     */
+    public List<List<String>> splitWords(Collection<String> words) {
+        return splitWords(words, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Split several words in parallel, e.g. the tokens of a document. Each distinct word is split only
+     * once, even if it occurs several times. The splitter must not be modified while this is running.
+     * @param words the words to split, may contain duplicates and {@code null}
+     * @param pool the pool whose threads split the words
+     * @return the result of {@link #splitWord(String)} for each word, in the order of the input;
+     *   the lists cannot be modified, as equal words share the same list
+     * @since 4.8
+     */
+    public List<List<String>> splitWords(Collection<String> words, ForkJoinPool pool) {
+        Map<String, Integer> uniqueWordIndexes = new HashMap<>();
+        List<String> uniqueWords = new ArrayList<>();
+        int[] indexes = new int[words.size()];
+        int i = 0;
+        for (String word : words) {
+            Integer index = uniqueWordIndexes.get(word);
+            if (index == null) {
+                index = uniqueWords.size();
+                uniqueWordIndexes.put(word, index);
+                uniqueWords.add(word);
+            }
+            indexes[i++] = index;
+        }
+        List<String>[] uniqueResults = newListArray(uniqueWords.size());
+        pool.invoke(new SplitWordsTask(this, uniqueWords, uniqueResults, 0, uniqueResults.length));
+        List<List<String>> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(uniqueResults[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #splitWords(Collection)}, but for the words of a stream. The stream is consumed completely
+     * before splitting starts.
+     * @since 4.8
+     */
+    public List<List<String>> splitWords(Stream<String> words) {
+        return splitWords(words, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like {@link #splitWords(Collection, ForkJoinPool)}, but for the words of a stream. The stream is consumed
+     * completely before splitting starts.
+     * @since 4.8
+     */
+    public List<List<String>> splitWords(Stream<String> words, ForkJoinPool pool) {
+        return splitWords(words.collect(Collectors.toList()), pool);
+    }
+
+    /**
+     * Finds the compound words in a text, e.g. a whole document, and splits them. Unlike the other methods,
+     * this expects punctuation, numbers etc.: the text is divided into words at all characters that are
+     * neither letters nor digits, except for hyphens between two letters or digits. Words that can't be
+     * compounds aren't split: words shorter than twice the minimum word length or longer than the maximum
+     * word length, words with digits, and words in capital letters only, like abbreviations. Each distinct
+     * word is split only once, even if it occurs several times.
+     * @return the words that could be split, in the order of the text, with their offsets in the text
+     * @since 4.8
+     */
+    public List<SplitToken> splitText(CharSequence text) {
+        TextSplitter splitter = new TextSplitter();
+        splitter.split(text, 0, true);
+        return splitter.result;
+    }
+
+    /**
+     * Like {@link #splitText(CharSequence)}, but for the text read from {@code reader}, which is read
+     * completely but not closed. The text is processed in chunks as it's read, so it's not kept in memory.
+     * The offsets are offsets in the characters read.
+     * @since 4.8
+     */
+    public List<SplitToken> splitText(Reader reader) throws IOException {
+        TextSplitter splitter = new TextSplitter();
+        CharArraySequence chunk = new CharArraySequence();
+        // a word that doesn't fit into the buffer is longer than the maximum word length:
+        char[] buffer = new char[Math.max(8192, maximumWordLength + 2)];
+        int length = 0;
+        int offset = 0;
+        while (true) {
+            int read = 0;
+            while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+            boolean last = read == -1;
+            int processed = splitter.split(chunk.set(buffer, 0, length), offset, last);
+            if (last) {
+                return splitter.result;
+            }
+            // keep the start of a word that may continue in the next chunk:
+            System.arraycopy(buffer, processed, buffer, 0, length - processed);
+            length -= processed;
+            offset += processed;
+        }
+    }
+
+    /**
+     * Finds and splits the words of a text that's given in one or more chunks, see {@link #splitText(CharSequence)}.
+     */
+    private class TextSplitter {
+
+        private final List<SplitToken> result = new ArrayList<>();
+        private final Map<String, List<String>> splits = new HashMap<>();
+        /** Whether the previous chunk ended within a word that's longer than the maximum word length. */
+        private boolean inLongWord;
+
+        /**
+         * Find and split the words of the chunk, which starts at {@code offset} in the text.
+         * @param last whether this is the last chunk of the text
+         * @return the number of characters processed: all of them, unless the chunk ends with a word
+         *   that may continue in the next chunk; that word has to be passed again with the next chunk
+         */
+        int split(CharSequence chunk, int offset, boolean last) {
+            int length = chunk.length();
+            int pos = 0;
+            while (pos < length) {
+                boolean longWord = pos == 0 && inLongWord;
+                if (!longWord && !Character.isLetterOrDigit(chunk.charAt(pos))) {
+                    pos++;
+                    continue;
+                }
+                int start = pos;
+                boolean hasDigit = false;
+                boolean hasLowerCase = false;
+                for (; pos < length; pos++) {
+                    char c = chunk.charAt(pos);
+                    if (Character.isLetter(c)) {
+                        hasLowerCase |= !Character.isUpperCase(c);
+                    } else if (Character.isDigit(c)) {
+                        hasDigit = true;
+                    } else if (c != '-' || (pos + 1 < length ? !Character.isLetterOrDigit(chunk.charAt(pos + 1)) : last)) {
+                        break;
+                    }
+                }
+                if (pos == length && !last) {
+                    if (longWord || pos - start > maximumWordLength) {
+                        // it won't be split anyway, so skip the rest of it in the next chunk:
+                        inLongWord = true;
+                        return length;
+                    }
+                    return start;
+                }
+                inLongWord = false;
+                int wordLength = pos - start;
+                if (longWord || hasDigit || !hasLowerCase || wordLength < 2 * minimumWordLength || wordLength > maximumWordLength) {
+                    continue;
+                }
+                String word = chunk.subSequence(start, pos).toString();
+                List<String> parts = splits.get(word);
+                if (parts == null) {
+                    parts = Collections.unmodifiableList(splitWord(word));
+                    splits.put(word, parts);
+                }
+                if (parts.size() > 1) {
+                    result.add(new SplitToken(offset + start, offset + pos, parts));
+                }
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Splits the words from {@code start} to {@code end}, divided into halves until they are
+     * small enough to not be worth distributing over several threads.
+     */
+    private static class SplitWordsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 64;
+
+        private final AbstractWordSplitter splitter;
+        private final List<String> words;
+        private final List<String>[] results;
+        private final int start;
+        private final int end;
+
+        SplitWordsTask(AbstractWordSplitter splitter, List<String> words, List<String>[] results, int start, int end) {
+            this.splitter = splitter;
+            this.words = words;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    results[i] = Collections.unmodifiableList(splitter.splitWord(words.get(i)));
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new SplitWordsTask(splitter, words, results, start, middle),
+                          new SplitWordsTask(splitter, words, results, middle, end));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newListArray(int capacity) {
+        return (List<String>[]) new List<?>[capacity];
+    }
+
+    /**
+     * @return a list of compound parts, with one element (the input word itself) if the input
+     *   could not be split; returns an empty list if the input is {@code null}
+     * @since 4.2
+     */
+    public List<String> splitWord(String word, boolean collectSubwords) {
+        return splitWord(word, collectSubwords, null);
+    }
+
+    private List<String> splitWord(String word, boolean collectSubwords, SplitBudget budget) {
+        return splitWord(word, collectSubwords, budget, null);
+    }
+
+    /**
+     * @param word the input, which must be a {@code String} unless {@code target} is given
+     * @param target the result to fill instead of returning a list, or {@code null}
+     * @return the parts, or {@code null} if {@code target} has been filled
+     */
+    private List<String> splitWord(CharSequence word, boolean collectSubwords, SplitBudget budget, SplitResult target) {
+        if (word == null) {
+            if (target != null) {
+                target.reset("");
+                return null;
+            }
+            return Collections.emptyList();
+        }
+        if (word.length() > maximumWordLength) {
+            recordInputTooLong();
+            throw new InputTooLongException("Input too long (" + word.length() + " characters), maximum is " +
+                    maximumWordLength + " characters to avoid potentially long processing times: '" + word + "'");
+        }
+        StatisticsRecorder statistics = this.statistics;
+        Object event = SplitEvents.INSTANCE.begin();
+        if (statistics == null && event == null) {
+            return splitWordUninstrumented(word, collectSubwords, budget, target);
+        }
+        return splitWordInstrumented(word, collectSubwords, budget, target, statistics, event);
+    }
+
+    private List<String> splitWordInstrumented(CharSequence word, boolean collectSubwords, SplitBudget budget, SplitResult target,
+                                               StatisticsRecorder statistics, Object event) {
+        SplitMemo memo = MEMO.get();
+        memo.lastProbes = 0;
+        long startTime = statistics != null ? System.nanoTime() : 0;
+        List<String> parts = splitWordUninstrumented(word, collectSubwords, budget, target);
+        if (statistics != null) {
+            statistics.recordCall(word.length(), strictMode, System.nanoTime() - startTime);
+        }
+        if (event != null) {
+            SplitEvents.INSTANCE.commit(event, collectSubwords ? "getSubWords" : "splitWord", word.toString(),
+                    target != null ? target.size() : parts.size(), memo.lastProbes, strictMode);
+        }
+        return parts;
+    }
+
+    private void recordInputTooLong() {
+        StatisticsRecorder statistics = this.statistics;
+        if (statistics != null) {
+            statistics.recordInputTooLong();
+        }
+    }
+
+    private List<String> splitWordUninstrumented(CharSequence word, boolean collectSubwords, SplitBudget budget, SplitResult target) {
+        if (target != null) {
+            // trim like String.trim():
+            int start = 0;
+            int end = word.length();
+            while (start < end && word.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && word.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            CharSequence trimmedWord = start == 0 && end == word.length() ? word : word.subSequence(start, end);
+            splitTrimmedWord(trimmedWord, collectSubwords, budget, target);
+            target.shift(word, start);
+            return null;
+        }
+        String trimmedWord = word.toString().trim();
+        SplitCache cache = this.cache;
+        if (cache == null) {
+            return splitTrimmedWord(trimmedWord, collectSubwords, budget);
+        }
+        List<String> parts = cache.get(trimmedWord, collectSubwords);
+        if (parts == null) {
+            parts = Collections.unmodifiableList(splitTrimmedWord(trimmedWord, collectSubwords, budget));
+            if (budget == null || !MEMO.get().lastExhausted) {
+                cache.put(trimmedWord, collectSubwords, parts);
+            }
+        }
+        return parts;
+    }
+
+    private List<String> splitTrimmedWord(String trimmedWord, boolean collectSubwords, SplitBudget budget) {
+        SplitResult result = MEMO.get().result;
+        splitTrimmedWord(trimmedWord, collectSubwords, budget, result);
+        List<String> parts = result.toList();
+        result.reset("");
+        return parts;
+    }
+
+    private void splitTrimmedWord(CharSequence trimmedWord, boolean collectSubwords, SplitBudget budget, SplitResult result) {
+        ExceptionSplits exceptions = this.exceptionSplits;
+        int exception = exceptions.indexOf(trimmedWord, 0, trimmedWord.length());
+        SplitMemo memo = MEMO.get();
+        memo.init(trimmedWord, budget, wordLookup, exceptions);
+        try {
+            if (exception >= 0) {
+                StatisticsRecorder statistics = this.statistics;
+                if (statistics != null) {
+                    statistics.recordExceptionHit();
+                }
+                memo.toResult(appendException(memo, NO_PARTS, exception, 0, trimmedWord.length()), result);
+                return;
+            }
+            memo.strict = strictMode;
+            finishSplit(memo, split(memo, trimmedWord.length(), false, collectSubwords), result);
+            if (result.size() == 1 && strictMode && nonStrictFallback) {
+                memo.clearSplits();
+                memo.strict = false;
+                finishSplit(memo, split(memo, trimmedWord.length(), false, collectSubwords), result);
+            }
+            StatisticsRecorder statistics = this.statistics;
+            if (statistics != null) {
+                statistics.recordSplit(memo.probes.getProbes(), memo.exceptionHits, memo.maxDepth, memo.nonStrictFallbacks);
+            }
+        } finally {
+            memo.clear();
+        }
+    }
+
+    /**
+     * Store the split of the complete word in the result, after disambiguation and cleanup.
+     */
+    private void finishSplit(SplitMemo memo, int parts, SplitResult result) {
+        memo.toResult(parts, result);
+        if (parts == NO_SPLIT || isUnsplitWord(result)) {
+            return;
+        }
+        getDisambiguator().disambiguate(result);
+        cleanLeadingAndTrailingHyphens(result);
+    }
+
+    /**
+     * Whether the result is just the input - disambiguation and cleanup wouldn't change it.
+     */
+    private boolean isUnsplitWord(SplitResult result) {
+        CharSequence word = result.getInput();
+        return result.size() == 1 && result.isRange(0) && result.getStart(0) == 0 && result.getEnd(0) == word.length()
+                && (word.length() == 0 || word.charAt(0) != '-' && word.charAt(word.length() - 1) != '-');
+    }
+
+    private void cleanLeadingAndTrailingHyphens(SplitResult result) {
+        for (int i = 0; i < result.size(); i++) {
+            int start = result.getStart(i);
+            int end = result.getEnd(i);
+            if (!result.isRange(i)) {
+                String element = result.getPart(i);
+                if (element.endsWith("-")) {
+                    result.setText(i, element.substring(0, element.length() - 1));
+                } else if (element.startsWith("-")) {
+                    result.setText(i, element.substring(1));
+                }
+            } else if (end > start && result.getInput().charAt(end - 1) == '-') {
+                result.setRange(i, start, end - 1);
+            } else if (end > start && result.getInput().charAt(start) == '-') {
+                result.setRange(i, start + 1, end);
+            }
+        }
+    }
+
+    // The methods below work on the prefix of memo.word that ends at offset 'end'. Splits are lists of
+    // parts in memo (see SplitMemo.part()), so no strings and lists need to be created while searching.
+
+    /** No split, like a {@code null} list of parts. */
+    private static final int NO_SPLIT = -1;
+    /** The empty list of parts. */
+    private static final int NO_PARTS = -2;
+
+    private int split(SplitMemo memo, int end, boolean allowInterfixRemoval, boolean collectSubwords) {
+        // only the initial call has allowInterfixRemoval == false, so only the other calls are worth caching:
+        if (allowInterfixRemoval && memo.splitDone[end]) {
+            return memo.splitResults[end];
+        }
+        if (++memo.depth > memo.maxDepth) {
+            memo.maxDepth = memo.depth;
+        }
+        int parts = findExceptionSplit(memo, 0, end);
+        if (parts == NO_SPLIT) {
+            parts = splitWithoutException(memo, end, allowInterfixRemoval, collectSubwords);
+        }
+        memo.depth--;
+        if (allowInterfixRemoval) {
+            memo.splitDone[end] = true;
+            memo.splitResults[end] = parts;
+        }
+        return parts;
+    }
+
+    private int splitWithoutException(SplitMemo memo, int end, boolean allowInterfixRemoval, boolean collectSubwords) {
+        int parts;
+        CharSequence word = memo.word;
+        String removableInterfix = findInterfixOrNull(word, end);
+        int endWithoutInterfix = removableInterfix != null ? end - removableInterfix.length() : end;
+        boolean canInterfixBeRemoved = removableInterfix != null && allowInterfixRemoval;
+
+        if (isPrefixWord(memo, end) && !collectSubwords) {
+            parts = memo.part(NO_PARTS, 0, end);
+        } else if (canInterfixBeRemoved && isPrefixWord(memo, endWithoutInterfix)) {
+            parts = memo.part(NO_PARTS, 0, endWithoutInterfix);
+            if (!hideInterfixCharacters) {
+                parts = memo.interfix(parts, endWithoutInterfix, removableInterfix);
+            }
+        } else {
+            parts = splitFromRight(memo, end, collectSubwords);
+
+            if (parts == NO_SPLIT && isPrefixWord(memo, end)) {
+                parts = memo.part(NO_PARTS, 0, end);
+            } else if (parts != NO_SPLIT && isPrefixWord(memo, end)) {
+                parts = memo.appendIfMissing(parts, memo.part(NO_PARTS, 0, end));
+            }
+
+            if (parts == NO_SPLIT && removableInterfix != null) {
+                parts = splitFromRight(memo, endWithoutInterfix, collectSubwords);
+                if (parts != NO_SPLIT && !hideInterfixCharacters) {
+                    parts = memo.interfix(parts, endWithoutInterfix, removableInterfix);
+                }
+            }
+        }
+        return parts;
+    }
+
+    private int splitFromRight(SplitMemo memo, int end, boolean collectSubwords) {
+        if (memo.splitFromRightDone[end]) {
+            return memo.splitFromRightResults[end];
+        }
+        int parts = splitFromRightUncached(memo, end, collectSubwords);
+        memo.splitFromRightDone[end] = true;
+        memo.splitFromRightResults[end] = parts;
+        return parts;
+    }
+
+    private int splitFromRightUncached(SplitMemo memo, int end, boolean collectSubwords) {
+        int parts = findExceptionSplit(memo, 0, end);
+        if (parts != NO_SPLIT) {
+            return parts;
+        }
+        boolean[] rightPartMatches = findWordSuffixes(memo, end);
+        if (memo.strict && !collectSubwords) {
+            // the split with the longest right part wins, so we can stop at the first one:
+            for (int i = minimumWordLength; i <= end - minimumWordLength; i++) {
+                if (rightPartMatches != null ? rightPartMatches[i] : isWord(memo, i, end)) {
+                    int leftPartParts = split(memo, i, true, false);
+                    if (leftPartParts != NO_SPLIT) {
+                        return memo.part(leftPartParts, i, end);
+                    }
+                }
+            }
+            return NO_SPLIT;
+        }
+        for (int i = end - minimumWordLength; i >= minimumWordLength; i--) {
+            if (!memo.strict) {
+                int exceptionSplit = getExceptionSplit(memo, i, end);
+                if (exceptionSplit != NO_SPLIT) {
+                    return exceptionSplit;
+                }
+            }
+            if (rightPartMatches != null ? rightPartMatches[i] : isWord(memo, i, end)) {
+                int leftPartParts = split(memo, i, true, collectSubwords);
+                boolean isLeftPartAWord = leftPartParts != NO_SPLIT;
+                if (isLeftPartAWord) {
+                    if (collectSubwords) {
+                        parts = memo.appendMissing(parts, leftPartParts);
+                        parts = memo.appendIfMissing(parts, memo.part(NO_PARTS, i, end));
+                        int rightPartExceptions = findExceptionSplit(memo, i, end);
+                        if (rightPartExceptions != NO_SPLIT) {
+                            parts = memo.appendMissing(parts, rightPartExceptions);
+                        }
+                    } else {
+                        parts = memo.part(leftPartParts, i, end);
+                    }
+                } else if (!memo.strict) {
+                    memo.nonStrictFallbacks++;
+                    parts = memo.part(memo.part(NO_PARTS, 0, i), i, end);
+                }
+            } else if (!memo.strict) {
+                if (isPrefixWord(memo, i)) {
+                    memo.nonStrictFallbacks++;
+                    parts = memo.part(memo.part(NO_PARTS, 0, i), i, end);
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Exception split for the right part ({@code start} to {@code end}) or the left part ({@code 0} to {@code start})
+     * of the word, combined with the other part.
+     */
+    private int getExceptionSplit(SplitMemo memo, int start, int end) {
+        int exception = findException(memo, start, end);
+        if (exception >= 0) {
+            return appendException(memo, memo.part(NO_PARTS, 0, start), exception, start, end);
+        }
+        int exception2 = findException(memo, 0, start);
+        if (exception2 >= 0) {
+            return memo.part(appendException(memo, NO_PARTS, exception2, 0, start), start, end);
+        }
+        return NO_SPLIT;
+    }
+
+    /**
+     * @return the parts of the exception for the characters from {@code start} to {@code end}, or {@link #NO_SPLIT}
+     */
+    private int findExceptionSplit(SplitMemo memo, int start, int end) {
+        int exception = findException(memo, start, end);
+        return exception >= 0 ? appendException(memo, NO_PARTS, exception, start, end) : NO_SPLIT;
+    }
+
+    private int findException(SplitMemo memo, int start, int end) {
+        int exception = memo.exceptions.indexOf(memo.word, start, end);
+        if (exception >= 0) {
+            memo.exceptionHits++;
+        }
+        return exception;
+    }
+
+    /**
+     * @return the parts followed by the parts of the exception, which has been found for the characters
+     *   from {@code start} to {@code end}
+     */
+    private static int appendException(SplitMemo memo, int parts, int exception, int start, int end) {
+        List<String> explicitSplit = memo.exceptions.getExplicitSplit(exception);
+        if (explicitSplit != null) {
+            for (int i = 0; i < explicitSplit.size(); i++) {
+                parts = memo.part(parts, start, end, false, explicitSplit.get(i));
+            }
+            return parts;
+        }
+        int partCount = memo.exceptions.getPartCount(exception);
+        int partStart = start;
+        for (int i = 1; i < partCount; i++) {
+            int partEnd = start + memo.exceptions.getPartOffset(exception, i);
+            parts = memo.part(parts, partStart, partEnd);
+            partStart = partEnd;
+        }
+        // the last part includes the "n" or "s" of a /NS match:
+        return memo.part(parts, partStart, end);
+    }
+
+    /**
+     * @return the interfix the first {@code end} characters of the word end with, compared case-insensitively
+     */
+    private String findInterfixOrNull(CharSequence word, int end) {
+        for (String interfix : interfixes) {
+            if (CaseFolding.endsWith(word, end, interfix)) {
+                return interfix;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the first {@code end} characters of the word are a dictionary word of at least the minimum length.
+     */
+    private boolean isPrefixWord(SplitMemo memo, int end) {
+        if (end < minimumWordLength) {
+            return false;
+        }
+        if (memo.lookup.marksInOnePass()) {
+            if (!memo.prefixesDone) {
+                if (!memo.probes.tryProbe()) {
+                    return false;
+                }
+                memo.lookup.markPrefixes(memo.word, 0, memo.word.length(), memo.prefixMatches);
+                memo.prefixesDone = true;
+            }
+            return memo.prefixMatches[end];
+        }
+        return isWord(memo, 0, end);
+    }
+
+    private boolean isWord(SplitMemo memo, int start, int end) {
+        if (end - start < minimumWordLength) {
+            return false;
+        }
+        return memo.probes.tryProbe() && memo.lookup.isWord(memo.word, start, end);
+    }
+
+    /**
+     * Find the dictionary words at the end of the first {@code end} characters of the word in a single
+     * walk, if the dictionary supports that. Callers need to check the minimum word length themselves.
+     * @return an array where element {@code i} is true if the characters from {@code i} to {@code end} are a word,
+     *   or {@code null} if the dictionary can't find them in one pass (see {@link WordLookup#marksInOnePass()})
+     *   or the budget is used up (then {@link #isWord(SplitMemo, int, int)} refuses the lookups, too)
+     */
+    private boolean[] findWordSuffixes(SplitMemo memo, int end) {
+        if (memo.suffixesDone[end]) {
+            return memo.suffixMatches[end];
+        }
+        if (memo.lookup.marksInOnePass() && memo.probes.tryProbe()) {
+            boolean[] wordStarts = memo.suffixMatches(end);
+            memo.lookup.markSuffixes(memo.word, 0, end, wordStarts);
+            memo.suffixesDone[end] = true;
+            return wordStarts;
+        }
+        return null;
+    }
+
+    private static final ThreadLocal<SplitMemo> MEMO = ThreadLocal.withInitial(SplitMemo::new);
+
+    /**
+     * The state of one call to {@code splitWord()}, re-used by later calls on the same thread
+     * to avoid allocations. It caches the results of {@code split()} and {@code splitFromRight()}:
+     * all words split during one call are prefixes of the input, so they are identified by their
+     * length. Without this cache, the same prefixes would be split again and again, with exponential
+     * worst case runtime.
+     *
+     * <p>The results are lists of parts, stored in arrays: each part has a start and end offset, the
+     * index of the part before it and an optional text. A list is identified by the index of its last
+     * part. Lists are never modified, appending a part creates a new list that shares the parts before
+     * it, so results can be cached and extended without copying them.
+     */
+    private static class SplitMemo {
+
+        private CharSequence word;
+        /** The dictionary and exceptions when the split started, later updates don't affect it. */
+        private WordLookup lookup;
+        private ExceptionSplits exceptions;
+        private boolean[] splitDone = new boolean[0];
+        private int[] splitResults;
+        private boolean[] splitFromRightDone;
+        private int[] splitFromRightResults;
+        /** For each part: its start offset, its end offset, the index of the previous part and whether it's an interfix. */
+        private int[] parts = new int[4 * 64];
+        /** The text of parts that aren't the characters of the word at their offsets, otherwise {@code null}. */
+        private String[] partTexts = new String[64];
+        private int partCount;
+        /** The parts of one list in their order, see {@link #listParts(int)}. */
+        private int[] listParts = new int[16];
+        /** The result of the current call to {@code splitWord()} if it returns a list or offsets. */
+        private final SplitResult result = new SplitResult();
+        /** The input of the current call to {@code splitWord()} if it's in a {@code char[]}. */
+        private final CharArraySequence chars = new CharArraySequence();
+        private boolean prefixesDone;
+        private boolean[] prefixMatches;
+        private boolean[][] suffixMatches;
+        /** Whether {@code suffixMatches[end]} has been filled for the current word. */
+        private boolean[] suffixesDone;
+        /** Whether the current search is in strict mode. */
+        private boolean strict;
+        /** The dictionary lookups of this call, limited by its budget. */
+        private final ProbeCounter probes = new ProbeCounter();
+        // counters for the statistics:
+        private int exceptionHits;
+        private int depth;
+        private int maxDepth;
+        private int nonStrictFallbacks;
+        /** The number of dictionary lookups of the last split, kept by {@link #clear()}. */
+        private int lastProbes;
+        /** Whether the budget of the last split was used up, kept by {@link #clear()}. */
+        private boolean lastExhausted;
+
+        void init(CharSequence word, SplitBudget budget, WordLookup lookup, ExceptionSplits exceptions) {
+            int size = word.length() + 1;
+            if (splitDone.length < size) {
+                splitDone = new boolean[size];
+                splitResults = new int[size];
+                splitFromRightDone = new boolean[size];
+                splitFromRightResults = new int[size];
+                prefixMatches = new boolean[size];
+                suffixMatches = new boolean[size][];
+                suffixesDone = new boolean[size];
+            }
+            this.word = word;
+            this.lookup = lookup;
+            this.exceptions = exceptions;
+            probes.start(budget);
+        }
+
+        boolean[] suffixMatches(int end) {
+            boolean[] matches = suffixMatches[end];
+            if (matches == null) {
+                // all prefixes of the longest input seen so far, not only of the current one:
+                matches = new boolean[suffixMatches.length];
+                suffixMatches[end] = matches;
+            }
+            return matches;
+        }
+
+        /**
+         * Forget the results of {@code split()} and {@code splitFromRight()} for another search
+         * of the same word, but keep the words found in the dictionary.
+         */
+        void clearSplits() {
+            int size = word.length() + 1;
+            Arrays.fill(splitDone, 0, size, false);
+            Arrays.fill(splitFromRightDone, 0, size, false);
+            Arrays.fill(partTexts, 0, partCount, null);
+            partCount = 0;
+        }
+
+        /**
+         * @return the list of parts followed by the characters from {@code start} to {@code end}
+         */
+        int part(int previous, int start, int end) {
+            return part(previous, start, end, false, null);
+        }
+
+        /**
+         * @return the list of parts followed by the interfix, which the characters from {@code start} on end with
+         */
+        int interfix(int previous, int start, String interfix) {
+            int end = start + interfix.length();
+            // like the other parts, the interfix keeps the case of the input if it's the same apart from that:
+            return part(previous, start, end, true, regionEquals(start, interfix) ? null : interfix);
+        }
+
+        /**
+         * @param text the text of the part, or {@code null} if it's the characters from {@code start} to {@code end}
+         * @return the list of parts followed by the part
+         */
+        int part(int previous, int start, int end, boolean interfix, String text) {
+            int index = partCount++;
+            if (index == partTexts.length) {
+                parts = Arrays.copyOf(parts, parts.length * 2);
+                partTexts = Arrays.copyOf(partTexts, partTexts.length * 2);
+            }
+            parts[index * 4] = start;
+            parts[index * 4 + 1] = end;
+            parts[index * 4 + 2] = previous;
+            parts[index * 4 + 3] = interfix ? 1 : 0;
+            partTexts[index] = text;
+            return index;
+        }
+
+        /**
+         * @return the list of parts followed by a copy of the part, unless it already contains a part with the same text
+         */
+        int appendIfMissing(int list, int part) {
+            for (int i = list; i >= 0; i = parts[i * 4 + 2]) {
+                if (sameText(i, part)) {
+                    return list;
+                }
+            }
+            return part(list, parts[part * 4], parts[part * 4 + 1], parts[part * 4 + 3] != 0, partTexts[part]);
+        }
+
+        /**
+         * @return the list of parts followed by the parts of {@code other} that it doesn't contain yet
+         */
+        int appendMissing(int list, int other) {
+            if (list == NO_SPLIT) {
+                list = NO_PARTS;
+            }
+            int count = listParts(other);
+            for (int i = 0; i < count; i++) {
+                list = appendIfMissing(list, listParts[i]);
+            }
+            return list;
+        }
+
+        /**
+         * Store the list of parts in the result, or the whole word if it's {@link #NO_SPLIT}.
+         */
+        void toResult(int list, SplitResult result) {
+            result.reset(word);
+            if (list == NO_SPLIT) {
+                result.add(0, word.length(), false, null);
+                return;
+            }
+            int count = listParts(list);
+            for (int i = 0; i < count; i++) {
+                int part = listParts[i];
+                result.add(parts[part * 4], parts[part * 4 + 1], parts[part * 4 + 3] != 0, partTexts[part]);
+            }
+        }
+
+        /**
+         * Put the parts of the list into {@link #listParts}, in their order.
+         * @return the number of parts
+         */
+        private int listParts(int list) {
+            int count = 0;
+            for (int i = list; i >= 0; i = parts[i * 4 + 2]) {
+                count++;
+            }
+            if (listParts.length < count) {
+                listParts = new int[Math.max(count, listParts.length * 2)];
+            }
+            int i = list;
+            for (int n = count - 1; n >= 0; n--) {
+                listParts[n] = i;
+                i = parts[i * 4 + 2];
+            }
+            return count;
+        }
+
+        /**
+         * @return whether the characters of the word from {@code start} on are the string, compared case-sensitively
+         */
+        private boolean regionEquals(int start, String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (word.charAt(start + i) != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return whether the parts have the same text, compared case-sensitively
+         */
+        private boolean sameText(int part1, int part2) {
+            int length = textLength(part1);
+            if (length != textLength(part2)) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (textChar(part1, i) != textChar(part2, i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int textLength(int part) {
+            String text = partTexts[part];
+            return text != null ? text.length() : parts[part * 4 + 1] - parts[part * 4];
+        }
+
+        private char textChar(int part, int i) {
+            String text = partTexts[part];
+            return text != null ? text.charAt(i) : word.charAt(parts[part * 4] + i);
+        }
+
+        void clear() {
+            clearSplits();
+            Arrays.fill(suffixesDone, 0, word.length() + 1, false);
+            prefixesDone = false;
+            word = null;
+            lookup = null;
+            exceptions = null;
+            lastProbes = probes.getProbes();
+            lastExhausted = probes.isExhausted();
+            exceptionHits = 0;
+            depth = 0;
+            maxDepth = 0;
+            nonStrictFallbacks = 0;
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * A snapshot of the counters of a splitter's result cache.
+ * @see AbstractWordSplitter#setCacheSize(int)
+ * @since 4.8
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final int maximumSize;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, int size, int maximumSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.maximumSize = maximumSize;
+    }
+
+    /** The number of lookups that found a cached result. */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** The number of lookups that had to split the word. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** The number of words removed from the cache because it was full. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** The number of words currently in the cache. */
+    public int getSize() {
+        return size;
+    }
+
+    /** The maximum number of words in the cache, 0 if caching is disabled. */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /** The ratio of hits to lookups, or 0 if there were no lookups. */
+    public double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount +
+                ", size=" + size + "/" + maximumSize;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * Case-insensitive comparison of character ranges. Characters are lowercased one by one with
+ * {@link Character#toLowerCase(char)}, just like {@link CompiledDictionary} does, so the result
+ * doesn't depend on the default locale and has the same length as the input.
+ */
+final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    static String toLowerCase(CharSequence seq, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = Character.toLowerCase(seq.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    static String toLowerCase(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.toLowerCase(s.charAt(i)) != s.charAt(i)) {
+                return toLowerCase(s, 0, s.length());
+            }
+        }
+        return s;
+    }
+
+    /**
+     * @return the same value as {@code toLowerCase(seq, start, end).hashCode()}, without creating a string
+     */
+    static int hashCode(CharSequence seq, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(seq.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * @param lowercase a string that's already in lowercase
+     * @return whether the characters from {@code start} to {@code end} are equal to {@code lowercase}, ignoring case
+     */
+    static boolean equals(CharSequence seq, int start, int end, String lowercase) {
+        if (end - start != lowercase.length()) {
+            return false;
+        }
+        return regionMatches(seq, start, lowercase);
+    }
+
+    /**
+     * @param lowercase a string that's already in lowercase
+     * @return whether the first {@code end} characters of {@code seq} end with {@code lowercase}, ignoring case
+     */
+    static boolean endsWith(CharSequence seq, int end, String lowercase) {
+        int start = end - lowercase.length();
+        return start >= 0 && regionMatches(seq, start, lowercase);
+    }
+
+    private static boolean regionMatches(CharSequence seq, int start, String lowercase) {
+        for (int i = 0; i < lowercase.length(); i++) {
+            if (Character.toLowerCase(seq.charAt(start + i)) != lowercase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,552 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A read-only set of words stored as a minimal acyclic automaton (DAWG) in a single
+ * {@link ByteBuffer}. There are no objects per word, so the dictionary can be
+ * {@linkplain #map(Path) memory-mapped} from a file, in which case all JVMs on a host
+ * share the same pages via the operating system's page cache.
+ *
+ * <p>Besides the automaton of the words, there's a second automaton of the reversed words,
+ * so all dictionary words at the end of an input can be found in one walk
+ * ({@link #markSuffixes(CharSequence, int, int, boolean[])}), just like all dictionary
+ * words at its start ({@link #markPrefixes(CharSequence, int, int, boolean[])}).
+ *
+ * <p>Binary format (big endian): a header of magic number, format version, word count,
+ * the offset of the root node and the offset of the root node of the reversed words, followed
+ * by the nodes. Each node consists of its number of arcs (unsigned short) and the arcs sorted
+ * by label, each arc taking 8 bytes: label (char), flags (byte), unused (byte), offset of the
+ * target node (int, 0 if the target has no arcs). The {@code FINAL} flag marks arcs that
+ * complete a word.
+ *
+ * <p>Instances are immutable and thread-safe.
+ * @since 4.8
+ */
+public final class CompiledDictionary extends AbstractSet<String> implements WordLookup {
+
+  private static final int MAGIC = 0x4A575344;  // "JWSD"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 20;
+  private static final int ARC_SIZE = 8;
+  private static final int FINAL = 1;
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int root;
+  private final int reverseRoot;
+
+  private CompiledDictionary(ByteBuffer buffer) throws IOException {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a compiled jWordSplitter dictionary");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported dictionary version " + buffer.getInt(4) + ", expected " + VERSION);
+    }
+    this.buffer = buffer;
+    this.size = buffer.getInt(8);
+    this.root = buffer.getInt(12);
+    this.reverseRoot = buffer.getInt(16);
+  }
+
+  /**
+   * Build a dictionary from the given words. Words are used as-is (i.e. not lowercased),
+   * empty strings are ignored.
+   */
+  public static CompiledDictionary compile(Collection<String> words) {
+    try {
+      return new CompiledDictionary(ByteBuffer.wrap(toByteArray(words)));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);  // cannot happen, we've just written a valid header
+    }
+  }
+
+  /**
+   * Memory-map a dictionary file written by {@link #write(OutputStream)}. The file must not be
+   * modified while the dictionary is in use.
+   */
+  public static CompiledDictionary map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new CompiledDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Read a dictionary written by {@link #write(OutputStream)}, e.g. from the class path.
+   * The stream is not closed. Unlike {@link #map(Path)}, this checks that the data is complete,
+   * so a file that's still being written causes an {@code IOException}.
+   */
+  public static CompiledDictionary read(InputStream stream) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[64 * 1024];
+    int len;
+    while ((len = stream.read(buf)) != -1) {
+      out.write(buf, 0, len);
+    }
+    CompiledDictionary dict = new CompiledDictionary(ByteBuffer.wrap(out.toByteArray()));
+    dict.checkComplete();
+    return dict;
+  }
+
+  /**
+   * Check that the nodes fill the buffer exactly and that all arcs point into it, so that lookups
+   * can't read beyond the end of a truncated dictionary.
+   */
+  private void checkComplete() throws IOException {
+    int limit = buffer.limit();
+    int node = HEADER_SIZE;
+    while (node + 2 <= limit) {
+      int end = node + 2 + buffer.getChar(node) * ARC_SIZE;
+      if (end > limit) {
+        break;
+      }
+      for (int arc = node + 2; arc < end; arc += ARC_SIZE) {
+        int target = buffer.getInt(arc + 4);
+        if (target != 0 && !isNode(target, limit)) {
+          throw new IOException("Corrupt compiled dictionary: arc at " + arc + " points outside of the data");
+        }
+      }
+      node = end;
+    }
+    if (node != limit || !isNode(root, limit) || !isNode(reverseRoot, limit)) {
+      throw new IOException("Incomplete compiled dictionary: " + limit + " bytes");
+    }
+  }
+
+  private static boolean isNode(int position, int limit) {
+    return position >= HEADER_SIZE && position <= limit - 2;
+  }
+
+  /**
+   * @return whether the file starts like a dictionary written by {@link #write(OutputStream)}
+   * @since 4.8
+   */
+  public static boolean isCompiled(Path file) throws IOException {
+    try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+      return isCompiled(stream);
+    }
+  }
+
+  /**
+   * Check whether the stream starts like a dictionary written by {@link #write(OutputStream)},
+   * without consuming it: the stream must support {@link InputStream#mark(int)}.
+   */
+  static boolean isCompiled(InputStream stream) throws IOException {
+    stream.mark(4);
+    try {
+      int magic = 0;
+      for (int i = 0; i < 4; i++) {
+        int b = stream.read();
+        if (b == -1) {
+          return false;
+        }
+        magic = magic << 8 | b;
+      }
+      return magic == MAGIC;
+    } finally {
+      stream.reset();
+    }
+  }
+
+  /**
+   * Write the binary form of this dictionary. The stream is not closed.
+   */
+  public void write(OutputStream out) throws IOException {
+    ByteBuffer copy = buffer.duplicate();
+    copy.clear();
+    byte[] buf = new byte[64 * 1024];
+    while (copy.hasRemaining()) {
+      int len = Math.min(buf.length, copy.remaining());
+      copy.get(buf, 0, len);
+      out.write(buf, 0, len);
+    }
+  }
+
+  /**
+   * @return whether the characters from {@code start} (inclusive) to {@code end} (exclusive)
+   *   of {@code seq} are a word of this dictionary, without creating a String for them
+   */
+  public boolean contains(CharSequence seq, int start, int end) {
+    return contains(seq, start, end, false);
+  }
+
+  /**
+   * Like {@link #contains(CharSequence, int, int)}, but the characters of {@code seq} are lowercased
+   * with {@link Character#toLowerCase(char)} before comparison.
+   */
+  @Override
+  public boolean isWord(CharSequence seq, int start, int end) {
+    return contains(seq, start, end, true);
+  }
+
+  /**
+   * @return true, both automatons are walked once per call
+   */
+  @Override
+  public boolean marksInOnePass() {
+    return true;
+  }
+
+  private boolean contains(CharSequence seq, int start, int end, boolean lowercase) {
+    if (start >= end) {
+      return false;
+    }
+    int node = root;
+    boolean isFinal = false;
+    for (int i = start; i < end; i++) {
+      if (node == 0) {
+        return false;
+      }
+      char c = seq.charAt(i);
+      int arc = findArc(node, lowercase ? Character.toLowerCase(c) : c);
+      if (arc == -1) {
+        return false;
+      }
+      isFinal = (buffer.get(arc + 2) & FINAL) != 0;
+      node = buffer.getInt(arc + 4);
+    }
+    return isFinal;
+  }
+
+  /**
+   * Find all dictionary words that start at {@code start} and end at or before {@code end}
+   * with a single walk through the automaton. Characters of {@code seq} are lowercased
+   * with {@link Character#toLowerCase(char)} before comparison.
+   * @param wordEnds filled so that {@code wordEnds[i]} for {@code start < i <= end} is true
+   *   if the characters from {@code start} to {@code i} are a word (other elements are not modified)
+   */
+  @Override
+  public void markPrefixes(CharSequence seq, int start, int end, boolean[] wordEnds) {
+    Arrays.fill(wordEnds, start + 1, end + 1, false);
+    int node = root;
+    for (int i = start; i < end && node != 0; i++) {
+      int arc = findArc(node, Character.toLowerCase(seq.charAt(i)));
+      if (arc == -1) {
+        break;
+      }
+      wordEnds[i + 1] = (buffer.get(arc + 2) & FINAL) != 0;
+      node = buffer.getInt(arc + 4);
+    }
+  }
+
+  /**
+   * Find all dictionary words that end at {@code end} and start at or after {@code start}
+   * with a single walk backwards through the automaton of the reversed words. Characters
+   * of {@code seq} are lowercased with {@link Character#toLowerCase(char)} before comparison.
+   * @param wordStarts filled so that {@code wordStarts[i]} for {@code start <= i < end} is true
+   *   if the characters from {@code i} to {@code end} are a word (other elements are not modified)
+   */
+  @Override
+  public void markSuffixes(CharSequence seq, int start, int end, boolean[] wordStarts) {
+    Arrays.fill(wordStarts, start, end, false);
+    int node = reverseRoot;
+    for (int i = end - 1; i >= start && node != 0; i--) {
+      int arc = findArc(node, Character.toLowerCase(seq.charAt(i)));
+      if (arc == -1) {
+        break;
+      }
+      wordStarts[i] = (buffer.get(arc + 2) & FINAL) != 0;
+      node = buffer.getInt(arc + 4);
+    }
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String)) {
+      return false;
+    }
+    String s = (String) o;
+    return contains(s, 0, s.length());
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the words in ascending {@code char} order
+   */
+  @Override
+  public Iterator<String> iterator() {
+    return new WordIterator();
+  }
+
+  /**
+   * @return the position of the arc of {@code node} with the given label, or -1
+   */
+  private int findArc(int node, char label) {
+    int low = 0;
+    int high = buffer.getChar(node) - 1;
+    int firstArc = node + 2;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int arc = firstArc + mid * ARC_SIZE;
+      char midLabel = buffer.getChar(arc);
+      if (midLabel < label) {
+        low = mid + 1;
+      } else if (midLabel > label) {
+        high = mid - 1;
+      } else {
+        return arc;
+      }
+    }
+    return -1;
+  }
+
+  private class WordIterator implements Iterator<String> {
+
+    // for each depth: the node and the index of its arc we're currently following
+    private int[] nodes = new int[16];
+    private int[] arcIndexes = new int[16];
+    private final StringBuilder sb = new StringBuilder();
+    private int depth;
+    private String next;
+
+    WordIterator() {
+      if (buffer.getChar(root) > 0) {
+        nodes[0] = root;
+        arcIndexes[0] = -1;
+        depth = 1;
+      }
+      next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public String next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      String result = next;
+      next = advance();
+      return result;
+    }
+
+    private String advance() {
+      while (depth > 0) {
+        int level = depth - 1;
+        int node = nodes[level];
+        int arcIndex = ++arcIndexes[level];
+        sb.setLength(level);
+        if (arcIndex >= buffer.getChar(node)) {
+          depth--;
+          continue;
+        }
+        int arc = node + 2 + arcIndex * ARC_SIZE;
+        sb.append(buffer.getChar(arc));
+        int target = buffer.getInt(arc + 4);
+        if (target != 0) {
+          if (depth == nodes.length) {
+            nodes = Arrays.copyOf(nodes, depth * 2);
+            arcIndexes = Arrays.copyOf(arcIndexes, depth * 2);
+          }
+          nodes[depth] = target;
+          arcIndexes[depth] = -1;
+          depth++;
+        }
+        if ((buffer.get(arc + 2) & FINAL) != 0) {
+          return sb.toString();
+        }
+      }
+      return null;
+    }
+  }
+
+  private static byte[] toByteArray(Collection<String> words) {
+    SortedSet<String> sorted = new TreeSet<>();
+    SortedSet<String> sortedReversed = new TreeSet<>();
+    for (String word : words) {
+      if (!word.isEmpty()) {
+        sorted.add(word);
+        sortedReversed.add(new StringBuilder(word).reverse().toString());
+      }
+    }
+    Node root = new Builder(sorted).root;
+    Node reverseRoot = new Builder(sortedReversed).root;
+    // assign positions in breadth-first order, so that nodes near the root are close together:
+    Map<Node,Integer> positions = new IdentityHashMap<>();
+    List<Node> nodes = new ArrayList<>();
+    int position = HEADER_SIZE;
+    for (Node node : Arrays.asList(root, reverseRoot)) {
+      positions.put(node, position);
+      nodes.add(node);
+      position += node.byteSize();
+    }
+    for (int i = 0; i < nodes.size(); i++) {
+      for (Node child : nodes.get(i).children()) {
+        if (child.hasChildren() && !positions.containsKey(child)) {
+          positions.put(child, position);
+          nodes.add(child);
+          position += child.byteSize();
+        }
+      }
+    }
+    ByteBuffer buf = ByteBuffer.allocate(position);
+    buf.putInt(MAGIC).putInt(VERSION).putInt(sorted.size()).putInt(positions.get(root)).putInt(positions.get(reverseRoot));
+    for (Node node : nodes) {
+      node.writeTo(buf, positions);
+    }
+    return buf.array();
+  }
+
+  /**
+   * Incremental construction of a minimal automaton from sorted input, as described in
+   * Daciuk et al., "Incremental Construction of Minimal Acyclic Finite-State Automata" (2000).
+   */
+  private static class Builder {
+
+    private final Map<Node,Node> register = new HashMap<>();
+    private final Node root = new Node();
+
+    Builder(SortedSet<String> words) {
+      for (String word : words) {
+        add(word);
+      }
+      if (root.hasChildren()) {
+        replaceOrRegister(root);
+      }
+    }
+
+    private void add(String word) {
+      Node node = root;
+      int i = 0;
+      while (i < word.length()) {
+        Node child = node.lastChildIfLabel(word.charAt(i));
+        if (child == null) {
+          break;
+        }
+        node = child;
+        i++;
+      }
+      if (node.hasChildren()) {
+        replaceOrRegister(node);
+      }
+      for (; i < word.length(); i++) {
+        node = node.addChild(word.charAt(i));
+      }
+      node.isFinal = true;
+    }
+
+    private void replaceOrRegister(Node node) {
+      Node child = node.lastChild();
+      if (child.hasChildren()) {
+        replaceOrRegister(child);
+      }
+      Node equivalent = register.get(child);
+      if (equivalent != null) {
+        node.replaceLastChild(equivalent);
+      } else {
+        register.put(child, child);
+      }
+    }
+  }
+
+  private static class Node {
+
+    private char[] labels = new char[0];
+    private Node[] targets = new Node[0];
+    private boolean isFinal;
+
+    boolean hasChildren() {
+      return labels.length > 0;
+    }
+
+    Node lastChild() {
+      return targets[targets.length - 1];
+    }
+
+    Node lastChildIfLabel(char label) {
+      return labels.length > 0 && labels[labels.length - 1] == label ? lastChild() : null;
+    }
+
+    List<Node> children() {
+      return Arrays.asList(targets);
+    }
+
+    Node addChild(char label) {
+      labels = Arrays.copyOf(labels, labels.length + 1);
+      targets = Arrays.copyOf(targets, targets.length + 1);
+      labels[labels.length - 1] = label;
+      Node child = new Node();
+      targets[targets.length - 1] = child;
+      return child;
+    }
+
+    void replaceLastChild(Node node) {
+      targets[targets.length - 1] = node;
+    }
+
+    int byteSize() {
+      return 2 + labels.length * ARC_SIZE;
+    }
+
+    void writeTo(ByteBuffer buf, Map<Node,Integer> positions) {
+      if (labels.length > Character.MAX_VALUE) {
+        throw new IllegalStateException("Too many arcs: " + labels.length);
+      }
+      buf.putChar((char) labels.length);
+      for (int i = 0; i < labels.length; i++) {
+        Node target = targets[i];
+        buf.putChar(labels[i]);
+        buf.put((byte) (target.isFinal ? FINAL : 0));
+        buf.put((byte) 0);
+        buf.putInt(target.hasChildren() ? positions.get(target) : 0);
+      }
+    }
+
+    // equality as needed for the register: children are already registered, so identity is enough for them
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Node other = (Node) o;
+      if (isFinal != other.isFinal || !Arrays.equals(labels, other.labels)) {
+        return false;
+      }
+      for (int i = 0; i < targets.length; i++) {
+        if (targets[i] != other.targets[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = isFinal ? 1 : 0;
+      for (int i = 0; i < labels.length; i++) {
+        result = 31 * result + labels[i];
+        result = 31 * result + System.identityHashCode(targets[i]);
+      }
+      return result;
+    }
+  }
+
+}
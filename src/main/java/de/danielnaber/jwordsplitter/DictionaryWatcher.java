@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a word list and calls a loader when it changes, see
+ * {@link AbstractWordSplitter#watchDictionary(java.io.File)}. Changes are detected with a
+ * {@link WatchService} on the file's directory in a daemon thread. As editors and copy tools
+ * often write a file in several steps, the file is only loaded once there have been no
+ * further changes for a short time.
+ * @since 4.8
+ */
+public final class DictionaryWatcher implements Closeable {
+
+    /** How long to wait after a change for further changes before the file is loaded. */
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final Path file;
+    private final Loader loader;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private volatile int reloadCount;
+    private volatile Exception lastError;
+    private volatile boolean closed;
+
+    interface Loader {
+        void load() throws IOException;
+    }
+
+    DictionaryWatcher(Path file, Loader loader) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.loader = loader;
+        Path dir = this.file.getParent();
+        this.watchService = dir.getFileSystem().newWatchService();
+        try {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(this::watch, "jwordsplitter-dictionary-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return how often the file has been loaded successfully after a change
+     */
+    public int getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * @return the error of the last attempt to load the file after a change, or {@code null} if it was successful;
+     *   the file is watched further after errors, so fixing it makes the next attempt succeed
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Stop watching the file. The words loaded so far stay in use.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                boolean changed = pollChanges(key);
+                // wait until the file hasn't been changed for a while:
+                while (true) {
+                    WatchKey next = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    changed |= pollChanges(next);
+                }
+                if (changed && !closed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean pollChanges(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            loader.load();
+            lastError = null;
+            reloadCount++;
+        } catch (IOException | RuntimeException e) {
+            // e.g. a file that's only partly written, keep the previous words and wait for the next change:
+            lastError = e;
+        }
+    }
+
+}
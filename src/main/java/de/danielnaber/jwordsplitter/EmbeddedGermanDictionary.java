@@ -15,45 +15,180 @@
  */
 package de.danielnaber.jwordsplitter;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * A singleton that returns always the same words of the embedded dictionary.
+ * The dictionary is read from its compiled form ({@link CompiledDictionary}), which
+ * the Maven build creates from the word lists in {@code src/main/resources}.
+ * It's loaded by the first call to {@link #getWords()}, or in the background after
+ * calling {@link #preload()}, e.g. at application startup.
+ *
+ * <p>To share the dictionary between several JVMs on a host, export it once with
+ * {@code java -cp jwordsplitter.jar de.danielnaber.jwordsplitter.tools.CompileDictionary -e german.dict}
+ * and set the system property {@value #DICTIONARY_FILE_PROPERTY} to the path of that file.
+ * The file is then memory-mapped, so the words don't use heap memory and all processes
+ * share the same pages of the operating system's page cache.
  * @since 4.1
  */
 public final class EmbeddedGermanDictionary {
 
-  private static final String DICT = "/de/danielnaber/jwordsplitter/wordsGerman.txt";   // dict inside the JAR
+  private static final String COMPILED_DICT = "/de/danielnaber/jwordsplitter/wordsGerman.dict";   // created at build time
+
+  /**
+   * System property with the path of a compiled dictionary file that's memory-mapped
+   * instead of reading the dictionary from the class path.
+   * @since 4.8
+   */
+  public static final String DICTIONARY_FILE_PROPERTY = "jwordsplitter.dictionaryFile";
 
-  private static Set<String> words;
+  private static final Loader loader = new Loader(EmbeddedGermanDictionary::readWords);
 
   private EmbeddedGermanDictionary() {
   }
 
-  public static synchronized Set<String> getWords() {
-    if (words == null) {
-      words = new HashSet<>();
-      //long t = System.currentTimeMillis();
-      try (InputStream is = new BufferedInputStream(EmbeddedGermanDictionary.class.getResourceAsStream(DICT));
-           InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-           BufferedReader br = new BufferedReader(isr)
-      ) {
-        String line;
-        while ((line = br.readLine()) != null) {
-          if (!line.startsWith("#")) {
-            words.add(line.trim().toLowerCase());
-          }
-        }
-        //long t2 = System.currentTimeMillis();
-        //System.out.println("Loading time: " + (t2-t) + "ms");
+  /**
+   * Get the words, loading them on the calling thread unless they're already loaded or
+   * being loaded. Once the words are loaded, this doesn't block. If loading fails, the next
+   * call tries again.
+   */
+  public static Set<String> getWords() {
+    return loader.getWords();
+  }
+
+  /**
+   * Start loading the words in the background on the common {@code ForkJoinPool}, unless they're
+   * already loaded or being loaded.
+   * @return a future that's completed with the words once they're loaded
+   * @since 4.8
+   */
+  public static CompletableFuture<Set<String>> preload() {
+    return preload(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Start loading the words in the background using the given executor, unless they're already
+   * loaded. If the executor rejects the task, the words are loaded on the calling thread. If the
+   * task hasn't run yet when {@link #getWords()} is called, that call loads the words itself.
+   * @return a future that's completed with the words once they're loaded
+   * @since 4.8
+   */
+  public static CompletableFuture<Set<String>> preload(Executor executor) {
+    return loader.preload(executor);
+  }
+
+  /**
+   * @return whether the words are loaded, i.e. whether {@link #getWords()} returns without blocking
+   * @since 4.8
+   */
+  public static boolean isLoaded() {
+    return loader.isLoaded();
+  }
+
+  private static Set<String> readWords() {
+    String dictionaryFile = System.getProperty(DICTIONARY_FILE_PROPERTY);
+    if (dictionaryFile != null) {
+      try {
+        return CompiledDictionary.map(Paths.get(dictionaryFile));
       } catch (IOException e) {
-        throw new RuntimeException("Could not load " + DICT, e);
+        throw new RuntimeException("Could not map " + dictionaryFile + " (set via " + DICTIONARY_FILE_PROPERTY + ")", e);
+      }
+    }
+    try (InputStream is = EmbeddedGermanDictionary.class.getResourceAsStream(COMPILED_DICT)) {
+      if (is == null) {
+        throw new RuntimeException("Could not find " + COMPILED_DICT + " in class path, it's created by 'mvn compile'");
+      }
+      return CompiledDictionary.read(is);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not load " + COMPILED_DICT, e);
+    }
+  }
+
+  /**
+   * Loads the words once, either in the background or on the first thread that needs them. Each
+   * attempt has its own future, so after a failed attempt the next call starts a new one.
+   */
+  static final class Loader {
+
+    private final Supplier<Set<String>> reader;
+    private final AtomicReference<CompletableFuture<Set<String>>> attempt = new AtomicReference<>(new CompletableFuture<>());
+    private volatile Set<String> words;
+
+    Loader(Supplier<Set<String>> reader) {
+      this.reader = reader;
+    }
+
+    Set<String> getWords() {
+      Set<String> result = words;
+      if (result != null) {
+        return result;
+      }
+      try {
+        return load().join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    CompletableFuture<Set<String>> preload(Executor executor) {
+      CompletableFuture<Set<String>> current = currentAttempt();
+      if (!current.isDone()) {
+        try {
+          executor.execute(this::load);
+        } catch (RejectedExecutionException e) {
+          return load();
+        }
+      }
+      return current;
+    }
+
+    boolean isLoaded() {
+      return words != null;
+    }
+
+    /**
+     * Load the words unless the current attempt is done. Threads calling this while the words are
+     * being loaded wait for the result, like the callers of {@link #preload(Executor)}'s future.
+     * @return the completed attempt
+     */
+    private synchronized CompletableFuture<Set<String>> load() {
+      CompletableFuture<Set<String>> current = currentAttempt();
+      if (!current.isDone()) {
+        try {
+          Set<String> result = reader.get();
+          words = result;
+          current.complete(result);
+        } catch (Throwable t) {
+          current.completeExceptionally(t);
+        }
+      }
+      return current;
+    }
+
+    /**
+     * @return the attempt to load the words, a new one if the previous attempt failed
+     */
+    private CompletableFuture<Set<String>> currentAttempt() {
+      CompletableFuture<Set<String>> current = attempt.get();
+      while (current.isCompletedExceptionally()) {
+        CompletableFuture<Set<String>> next = new CompletableFuture<>();
+        current = attempt.compareAndSet(current, next) ? next : attempt.get();
       }
+      return current;
     }
-    return words;
   }
 
 }
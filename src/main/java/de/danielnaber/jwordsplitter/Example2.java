@@ -24,7 +24,9 @@ import java.util.Scanner;
 
 /**
  * See Exmaple.java, but this uses a non-strict splitting as a fallback
- * (note the infix 's' is handled differently then).
+ * (note the infix 's' is handled differently then). Since 4.8, the same can be done
+ * with one splitter and {@link AbstractWordSplitter#setNonStrictFallback(boolean)},
+ * which is faster.
  */
 final class Example2 {
 
@@ -20,16 +20,46 @@ import de.danielnaber.jwordsplitter.tools.FileTools;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Exceptions for splitting loaded from a file.
+ * Exceptions for splitting loaded from a file. The lowercased words are kept in a {@link HashDictionary},
+ * so lookups of a character range don't need to create a string. Its word indexes are used as indexes
+ * into the arrays with the splits.
+ * For exceptions whose parts make up the word (ignoring case), only the offsets where the word
+ * is split are stored, all in one array; the parts are then taken from the input, keeping its case.
+ * Entries with the {@code /NS} suffix are stored once and also match the word plus "n" or "s".
+ *
+ * <p>Exception files are parsed once per process, see {@link #load(String)}.
+ *
+ * <p>Almost all lookups don't find an exception. A bit set indexed by length, first and last character
+ * of the keys rejects most of them without hashing the input.
  */
 class ExceptionSplits {
 
     private static final String COMMENT_CHAR = "#";
     private static final String DELIMITER_CHAR = "|";
+    private static final String NS_SUFFIX = "/NS";
+    private static final int FILTER_BITS = 1 << 16;
+
+    private static final Map<String, ExceptionSplits> loadedFiles = new ConcurrentHashMap<>();
+
+    private HashDictionary keys = new HashDictionary();
+    /** Index into {@link #boundaries}, or -1 if the split is in {@link #explicitSplits}. */
+    private int[] boundaryIndexes = new int[16];
+    /** Splits whose parts are not the characters of the word, or {@code null} if there's no exception. */
+    private List<String>[] explicitSplits = newListArray(16);
+    /** Whether the entry also applies to the word plus "n" or "s" (the {@code /NS} suffix). */
+    private boolean[] nsSuffix = new boolean[16];
+
+    /** For each entry: the number of parts, followed by the offsets where parts 2 to n start. */
+    private int[] boundaries = new int[64];
+    private int boundariesSize;
 
-    private final Map<String,List<String>> exceptionMap = new HashMap<>();
+    /** Created with the first entry, as many splitters get their exceptions replaced right after creation. */
+    private long[] filter;
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength = 0;
 
     /**
      * Create an empty list of exceptions.
@@ -37,6 +67,22 @@ class ExceptionSplits {
     ExceptionSplits() {
     }
     
+    /**
+     * Get the exceptions of a file in the class path. Each file is only loaded once, so the
+     * result is shared and must not be modified - use {@link #copy()} for that.
+     */
+    static ExceptionSplits load(String filename) throws IOException {
+        ExceptionSplits exceptionSplits = loadedFiles.get(filename);
+        if (exceptionSplits == null) {
+            exceptionSplits = new ExceptionSplits(filename);
+            ExceptionSplits loadedMeanwhile = loadedFiles.putIfAbsent(filename, exceptionSplits);
+            if (loadedMeanwhile != null) {
+                exceptionSplits = loadedMeanwhile;
+            }
+        }
+        return exceptionSplits;
+    }
+
     ExceptionSplits(String filename) throws IOException {
         try (InputStream is = AbstractWordSplitter.class.getResourceAsStream(filename)) {
             if (is == null) {
@@ -47,20 +93,17 @@ class ExceptionSplits {
                 while (scanner.hasNextLine()) {
                     String line = scanner.nextLine().trim();
                     if (!line.isEmpty() && !line.startsWith(COMMENT_CHAR)) {
-                        String[] parts = line.replace("/NS", "").split("\\|");
+                        String[] parts = line.replace(NS_SUFFIX, "").split("\\|");
                         String completeWord = line.replace(DELIMITER_CHAR, "");
                         List<String> list = new ArrayList<>(Arrays.asList(parts));
                         if (completeWord.contains("/")) {
-                            if (completeWord.endsWith("/NS")) {
-                                String realWord = completeWord.replace("/NS", "").toLowerCase();
-                                exceptionMap.put(realWord, list);
-                                exceptionMap.put(realWord + "n", addToLastPart(list, "n"));
-                                exceptionMap.put(realWord + "s", addToLastPart(list, "s"));
+                            if (completeWord.endsWith(NS_SUFFIX)) {
+                                put(completeWord.replace(NS_SUFFIX, ""), list, true);
                             } else {
                                 throw new RuntimeException("Unknown suffix in line: " + line);
                             }
                         } else {
-                            exceptionMap.put(completeWord.toLowerCase(), list);
+                            addSplit(completeWord, list);
                         }
                     }
                 }
@@ -68,53 +111,210 @@ class ExceptionSplits {
         }
     }
 
-    private List<String> addToLastPart(List<String> list, String suffix) {
-        List<String> result = new ArrayList<>(list);
-        int lastPos = result.size() - 1;
-        result.set(lastPos, result.get(lastPos) + suffix);
-        return result;
+    /**
+     * @return a copy of these exceptions that can be modified independently
+     */
+    ExceptionSplits copy() {
+        ExceptionSplits copy = new ExceptionSplits();
+        copy.keys = keys.copy();
+        copy.boundaryIndexes = boundaryIndexes.clone();
+        copy.explicitSplits = explicitSplits.clone();
+        copy.nsSuffix = nsSuffix.clone();
+        copy.boundaries = Arrays.copyOf(boundaries, boundariesSize);
+        copy.boundariesSize = boundariesSize;
+        copy.filter = filter != null ? filter.clone() : null;
+        copy.minLength = minLength;
+        copy.maxLength = maxLength;
+        return copy;
     }
 
     List<String> getExceptionSplitOrNull(String word) {
-        String lcWord = word.toLowerCase();
-        List<String> result = exceptionMap.get(lcWord);
-        if (result != null) {
-            // The following code will only get executed if an exception split is encountered
-            String check = join(result, "");
-            if (lcWord.equals(check.toLowerCase())) {
-                // The recombined, lowercased split-word is equal to the lowercase original word
-                // Generate the pieces by splitting the original word with the same string lengths
-                // as the splitted word. This will preserve the case of the original word
-                result = splitEqually(result, word);
+        return getExceptionSplitOrNull(word, 0, word.length());
+    }
+
+    /**
+     * Look up the exception split for the characters from {@code start} to {@code end}, ignoring case.
+     * Unless an exception is found, this doesn't allocate any memory.
+     */
+    List<String> getExceptionSplitOrNull(CharSequence seq, int start, int end) {
+        int index = indexOf(seq, start, end);
+        return index >= 0 ? getSplit(index, seq, start, end) : null;
+    }
+
+    /**
+     * Look up the exception for the characters from {@code start} to {@code end}, ignoring case, without
+     * allocating memory. Its parts are described by {@link #getExplicitSplit(int)}, or by
+     * {@link #getPartCount(int)} and {@link #getPartOffset(int, int)}.
+     * @return the index of the exception, or -1 if there's none
+     */
+    int indexOf(CharSequence seq, int start, int end) {
+        int length = end - start;
+        if (length < minLength || length > maxLength + 1) {
+            return -1;
+        }
+        char first = Character.toLowerCase(seq.charAt(start));
+        char last = Character.toLowerCase(seq.charAt(end - 1));
+        if (!mightContain(length, first, last)) {
+            return -1;
+        }
+        int index = keys.indexOf(seq, start, end);
+        if (index >= 0) {
+            return hasSplit(index) ? index : -1;
+        }
+        if (last == 'n' || last == 's') {
+            index = keys.indexOf(seq, start, end - 1);
+            if (index >= 0 && nsSuffix[index] && hasSplit(index)) {
+                return index;
             }
         }
-        return result;
+        return -1;
     }
 
-    protected List<String> splitEqually(List<String> splitted, String original) {
-        List<String> list = new ArrayList<>();
-        int offset = 0;
-        for (String s : splitted) {
-            int length = s.length();
-            list.add(original.substring(offset, offset+length));
-            offset += length;
+    private boolean hasSplit(int index) {
+        return boundaryIndexes[index] >= 0 || explicitSplits[index] != null;
+    }
+
+    /**
+     * @return the parts of the exception if they're not the characters of the word, otherwise {@code null}
+     */
+    List<String> getExplicitSplit(int index) {
+        return boundaryIndexes[index] < 0 ? explicitSplits[index] : null;
+    }
+
+    /**
+     * @return the number of parts of an exception whose parts are the characters of the word
+     */
+    int getPartCount(int index) {
+        return boundaries[boundaryIndexes[index]];
+    }
+
+    /**
+     * @return the offset in the word where the part starts, for the parts {@code 1} to {@code getPartCount(index) - 1}
+     *   of an exception whose parts are the characters of the word (the last part includes the "n" or "s" of a /NS match)
+     */
+    int getPartOffset(int index, int part) {
+        return boundaries[boundaryIndexes[index] + part];
+    }
+
+    private List<String> getSplit(int keyIndex, CharSequence seq, int start, int end) {
+        List<String> explicitSplit = getExplicitSplit(keyIndex);
+        if (explicitSplit != null) {
+            return explicitSplit;
+        }
+        int partCount = getPartCount(keyIndex);
+        List<String> parts = new ArrayList<>(partCount);
+        int partStart = start;
+        for (int i = 1; i < partCount; i++) {
+            int partEnd = start + getPartOffset(keyIndex, i);
+            parts.add(seq.subSequence(partStart, partEnd).toString());
+            partStart = partEnd;
         }
-        return list;
+        // the last part includes the "n" or "s" of a /NS match:
+        parts.add(seq.subSequence(partStart, end).toString());
+        return parts;
+    }
+
+    void addSplit(String word, List<String> wordParts) {
+        put(word, wordParts, false);
     }
 
-    protected String join(List<String> elements, String separator) {
-        StringBuilder builder = new StringBuilder();
-        Iterator<String> iter = elements.iterator();
-        if (iter.hasNext()) {
-            builder.append(iter.next());
-            while (iter.hasNext()) {
-                builder.append(separator).append(iter.next());
+    private void put(String word, List<String> wordParts, boolean ns) {
+        String key = CaseFolding.toLowerCase(word);
+        int index = keys.indexOf(key, 0, key.length());
+        if (index >= 0 && nsSuffix[index] && !ns) {
+            // the word plus "n" or "s" keeps its split, as if the /NS entry had been three entries:
+            for (String suffix : new String[] {"n", "s"}) {
+                if (keys.indexOf(key + suffix, 0, key.length() + 1) < 0) {
+                    setEntry(key + suffix, boundaryIndexes[index], explicitSplits[index], false);
+                }
             }
         }
-        return builder.toString();
+        if (wordParts != null && isSplitOf(wordParts, key)) {
+            setEntry(key, addBoundaries(wordParts), null, ns);
+        } else {
+            setEntry(key, -1, wordParts, ns);
+        }
     }
 
-    void addSplit(String word, List<String> wordParts) {
-        exceptionMap.put(word.toLowerCase(), wordParts);
+    private void setEntry(String key, int boundaryIndex, List<String> explicitSplit, boolean ns) {
+        int index = keys.addWord(key);
+        if (index >= boundaryIndexes.length) {
+            int capacity = boundaryIndexes.length * 2;
+            boundaryIndexes = Arrays.copyOf(boundaryIndexes, capacity);
+            explicitSplits = Arrays.copyOf(explicitSplits, capacity);
+            nsSuffix = Arrays.copyOf(nsSuffix, capacity);
+        }
+        boundaryIndexes[index] = boundaryIndex;
+        explicitSplits[index] = explicitSplit;
+        nsSuffix[index] = ns;
+        addToFilter(key, ns);
+    }
+
+    /**
+     * @return whether the parts make up the word, ignoring case
+     */
+    private static boolean isSplitOf(List<String> parts, String lowercaseWord) {
+        int offset = 0;
+        for (String part : parts) {
+            if (!lowercaseWord.startsWith(CaseFolding.toLowerCase(part), offset)) {
+                return false;
+            }
+            offset += part.length();
+        }
+        return offset == lowercaseWord.length() && !parts.isEmpty();
+    }
+
+    private int addBoundaries(List<String> parts) {
+        if (boundariesSize + parts.size() > boundaries.length) {
+            boundaries = Arrays.copyOf(boundaries, Math.max(boundaries.length * 2, boundariesSize + parts.size()));
+        }
+        int index = boundariesSize;
+        boundaries[boundariesSize++] = parts.size();
+        int offset = 0;
+        for (int i = 0; i < parts.size() - 1; i++) {
+            offset += parts.get(i).length();
+            boundaries[boundariesSize++] = offset;
+        }
+        return index;
+    }
+
+    private void addToFilter(String key, boolean ns) {
+        if (key.isEmpty()) {
+            return;
+        }
+        if (filter == null) {
+            filter = new long[FILTER_BITS / 64];
+        }
+        minLength = Math.min(minLength, key.length());
+        maxLength = Math.max(maxLength, key.length());
+        setFilterBit(key.length(), key.charAt(0), key.charAt(key.length() - 1));
+        if (ns) {
+            setFilterBit(key.length() + 1, key.charAt(0), 'n');
+            setFilterBit(key.length() + 1, key.charAt(0), 's');
+        }
+    }
+
+    private void setFilterBit(int length, char first, char last) {
+        int bit = filterBit(length, first, last);
+        filter[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean mightContain(int length, char first, char last) {
+        int bit = filterBit(length, first, last);
+        return (filter[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static int filterBit(int length, char first, char last) {
+        int hash = (length * 31 + first) * 31 + last;
+        return spread(hash * 0x9E3779B9) & (FILTER_BITS - 1);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newListArray(int capacity) {
+        return (List<String>[]) new List<?>[capacity];
     }
 }
@@ -29,14 +29,24 @@ public class GermanInterfixDisambiguator {
 
     private static final Set<String> wordsRequiringInterfixS = new HashSet<>();
     
-    private final Set<String> dictionary;
+    /** The set the dictionary was created from. */
+    private final Set<String> words;
+    private final WordLookup dictionary;
 
     static {
         wordsRequiringInterfixS.add("Verhalten");
     }
 
     GermanInterfixDisambiguator(Set<String> dictionary) {
-        this.dictionary = dictionary;
+        this.words = dictionary;
+        this.dictionary = WordLookup.of(dictionary);
+    }
+
+    /**
+     * @return whether this disambiguator looks up words in the given set
+     */
+    boolean uses(Set<String> dictionary) {
+        return words == dictionary;
     }
 
     // TODO:
@@ -45,34 +55,82 @@ public class GermanInterfixDisambiguator {
     // tau vs. stau
 
     List<String> disambiguate(List<String> parts) {
-        List<String> newParts = new ArrayList<>(parts);
+        SplitResult result = SplitResult.of(parts);
+        disambiguate(result);
+        return new ArrayList<>(result.toList());
+    }
+
+    /**
+     * Like {@link #disambiguate(List)}, but changes the offsets of the parts instead of creating strings if possible.
+     */
+    void disambiguate(SplitResult parts) {
         int lastPartIdx = parts.size() - 1;
         if (parts.size() > 1) {
-            String lastPart = parts.get(lastPartIdx);
-            if (lastPart.equals("samt") || lastPart.equals("samts") || lastPart.equals("samtes")) {
+            if (parts.partEquals(lastPartIdx, "samt") || parts.partEquals(lastPartIdx, "samts") || parts.partEquals(lastPartIdx, "samtes")) {
                 // Verkehr+s+amt = Verkehrs+amt
-                newParts.set(lastPartIdx - 1, parts.get(lastPartIdx - 1) + "s");
-                newParts.set(lastPartIdx, lastPart.replaceFirst("^s", ""));
-                return newParts;
+                moveFirstCharToPrevious(parts, lastPartIdx);
+                return;
             }
         }
-        for (int i = newParts.size() - 1; i >= 2; i--) {
-            String part = newParts.get(i);
-            String prevPart = newParts.get(i - 1);
-            String prevPrevPart = newParts.get(i - 2);
-            if (prevPart.equals("s")) {
-                boolean partIsWord = isWord("s" + part);
-                if (!partIsWord || wordsRequiringInterfixS.contains(prevPrevPart)) {
+        for (int i = parts.size() - 1; i >= 2; i--) {
+            if (parts.partEquals(i - 1, "s")) {
+                boolean partIsWord = isWordWithS(parts, i);
+                if (!partIsWord || requiresInterfixS(parts, i - 2)) {
                     // Schönheit+s+tempel = Schönheits-tempel
-                    newParts.set(i - 2, prevPrevPart + "s");
-                    newParts.remove(i - 1);   // remove interfix
+                    appendToPrevious(parts, i - 1);   // remove interfix
                 }
             }
         }
-        return newParts;
+    }
+
+    /**
+     * @return whether "s" plus the part is a word
+     */
+    private boolean isWordWithS(SplitResult parts, int part) {
+        if (parts.getEnd(part - 1) == parts.getStart(part) && parts.isRange(part) && (parts.isRange(part - 1) || parts.isInterfix(part - 1))) {
+            // the "s" is the character before the part, maybe in uppercase, which doesn't matter for lookups:
+            return dictionary.isWord(parts.getInput(), parts.getStart(part - 1), parts.getEnd(part));
+        }
+        return isWord("s" + parts.getPart(part));
+    }
+
+    private boolean requiresInterfixS(SplitResult parts, int part) {
+        for (String word : wordsRequiringInterfixS) {
+            if (parts.partEquals(part, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move the first character of the part, an "s", to the end of the previous part.
+     */
+    private static void moveFirstCharToPrevious(SplitResult parts, int part) {
+        int start = parts.getStart(part);
+        if (parts.isRange(part - 1) && parts.isRange(part) && parts.getEnd(part - 1) == start) {
+            parts.setRange(part - 1, parts.getStart(part - 1), start + 1);
+            parts.setRange(part, start + 1, parts.getEnd(part));
+        } else {
+            parts.setText(part - 1, parts.getPart(part - 1) + "s");
+            parts.setText(part, parts.getPart(part).substring(1));
+        }
+    }
+
+    /**
+     * Append the part, an "s", to the previous part.
+     */
+    private static void appendToPrevious(SplitResult parts, int part) {
+        int start = parts.getStart(part);
+        if (parts.isRange(part - 1) && parts.isRange(part) && parts.getEnd(part - 1) == start) {
+            parts.setRange(part - 1, parts.getStart(part - 1), parts.getEnd(part));
+        } else {
+            parts.setText(part - 1, parts.getPart(part - 1) + "s");
+        }
+        parts.remove(part);
     }
 
     private boolean isWord(String word) {
-        return dictionary.contains(word.toLowerCase());
+        return dictionary.isWord(word, 0, word.length());
     }
 }
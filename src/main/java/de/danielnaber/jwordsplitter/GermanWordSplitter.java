@@ -1,93 +1,266 @@
-/*
- * Copyright 2012 Daniel Naber (www.danielnaber.de)
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package de.danielnaber.jwordsplitter;
-
-import de.danielnaber.jwordsplitter.tools.FileTools;
-
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.*;
-
-/**
- * Split German compound words. Based on an embedded dictionary, or on an
- * external plain text dictionary.
- */
-public class GermanWordSplitter extends AbstractWordSplitter {
-
-    private static final String EXCEPTION_DICT = "/de/danielnaber/jwordsplitter/exceptionsGerman.txt";   // dict inside the JAR
-    /** Interfixes = Fugenelemente */
-    private static final Collection<String> INTERFIXES = Arrays.asList(
-            "s-",  // combination of the characters below
-            "s",
-            "-");
-
-    private GermanInterfixDisambiguator disambiguator;
-
-    public GermanWordSplitter(boolean hideInterfixCharacters) throws IOException {
-        super(hideInterfixCharacters, EmbeddedGermanDictionary.getWords());
-        init();
-    }
-
-    public GermanWordSplitter(boolean hideInterfixCharacters, InputStream plainTextDict) throws IOException {
-        super(hideInterfixCharacters, plainTextDict);
-        init();
-    }
-
-    public GermanWordSplitter(boolean hideInterfixCharacters, File plainTextDict) throws IOException {
-        super(hideInterfixCharacters, plainTextDict);
-        init();
-    }
-
-    /**
-     * @since 4.2
-     */
-    public GermanWordSplitter(boolean hideInterfixCharacters, Set<String> words) throws IOException {
-        super(hideInterfixCharacters, words);
-        init();
-    }
-
-    private void init() throws IOException {
-        disambiguator = new GermanInterfixDisambiguator(getWordList());
-        setExceptionFile(EXCEPTION_DICT);
-    }
-
-    @Override
-    protected Set<String> getWordList(InputStream stream) throws IOException {
-        return FileTools.loadFileToSet(stream, "utf-8");
-    }
-
-    @Override
-    protected Set<String> getWordList() {
-        return EmbeddedGermanDictionary.getWords();
-    }
-
-    @Override
-    protected GermanInterfixDisambiguator getDisambiguator() {
-        return disambiguator;
-    }
-
-    @Override
-    protected int getDefaultMinimumWordLength() {
-        return 3;
-    }
-
-    @Override
-    protected Collection<String> getInterfixCharacters() {
-        return INTERFIXES;
-    }
-
-}
+/*
+ * Copyright 2012 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import de.danielnaber.jwordsplitter.tools.FileTools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Split German compound words. Based on an embedded dictionary, or on an
+ * external plain text dictionary.
+ *
+ * <p>Use {@link #builder()} to create a splitter that cannot be modified and
+ * can be shared by all threads of an application.
+ */
+public class GermanWordSplitter extends AbstractWordSplitter {
+
+    private static final int DEFAULT_MINIMUM_WORD_LENGTH = 3;
+    private static final String EXCEPTION_DICT = "/de/danielnaber/jwordsplitter/exceptionsGerman.txt";   // dict inside the JAR
+    /** Interfixes = Fugenelemente */
+    private static final Collection<String> INTERFIXES = Arrays.asList(
+            "s-",  // combination of the characters below
+            "s",
+            "-");
+
+    /** The disambiguator for the current {@link #words}, replaced when they're updated. */
+    private volatile GermanInterfixDisambiguator disambiguator;
+
+    public GermanWordSplitter(boolean hideInterfixCharacters) throws IOException {
+        super(hideInterfixCharacters, EmbeddedGermanDictionary.getWords());
+        init();
+    }
+
+    public GermanWordSplitter(boolean hideInterfixCharacters, InputStream plainTextDict) throws IOException {
+        super(hideInterfixCharacters, plainTextDict);
+        init();
+    }
+
+    public GermanWordSplitter(boolean hideInterfixCharacters, File plainTextDict) throws IOException {
+        super(hideInterfixCharacters, plainTextDict);
+        init();
+    }
+
+    /**
+     * @since 4.2
+     */
+    public GermanWordSplitter(boolean hideInterfixCharacters, Set<String> words) throws IOException {
+        super(hideInterfixCharacters, words);
+        init();
+    }
+
+    private GermanWordSplitter(Builder builder, Set<String> words, ExceptionSplits exceptionSplits) {
+        super(builder.hideInterfixCharacters, words, exceptionSplits,
+                builder.strictMode, builder.nonStrictFallback, builder.minimumWordLength, builder.maximumWordLength, builder.cacheSize,
+                builder.statisticsEnabled);
+    }
+
+    private void init() throws IOException {
+        setExceptionFile(EXCEPTION_DICT);
+    }
+
+    /**
+     * Create a builder for a splitter that cannot be modified and is thread-safe. By default,
+     * the splitter uses the embedded dictionary and exceptions, strict mode and
+     * doesn't hide interfix characters.
+     * @since 4.8
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    protected Set<String> getWordList(InputStream stream) throws IOException {
+        return loadWordList(stream);
+    }
+
+    private static Set<String> loadWordList(InputStream stream) throws IOException {
+        return HashDictionary.of(FileTools.loadFileToSet(stream, "utf-8"));
+    }
+
+    @Override
+    protected Set<String> getWordList() {
+        return EmbeddedGermanDictionary.getWords();
+    }
+
+    @Override
+    protected GermanInterfixDisambiguator getDisambiguator() {
+        Set<String> words = this.words;
+        GermanInterfixDisambiguator result = disambiguator;
+        if (result == null || !result.uses(words)) {
+            result = new GermanInterfixDisambiguator(words);
+            disambiguator = result;
+        }
+        return result;
+    }
+
+    @Override
+    protected int getDefaultMinimumWordLength() {
+        return DEFAULT_MINIMUM_WORD_LENGTH;
+    }
+
+    @Override
+    protected Collection<String> getInterfixCharacters() {
+        return INTERFIXES;
+    }
+
+    /**
+     * Configures a {@link GermanWordSplitter} that cannot be modified. Use
+     * {@link GermanWordSplitter#builder()} to get an instance.
+     * @since 4.8
+     */
+    public static class Builder {
+
+        private boolean hideInterfixCharacters = false;
+        private Set<String> words;
+        private File dictionaryFile;
+        private String exceptionFile = EXCEPTION_DICT;
+        private final Map<String, List<String>> exceptions = new LinkedHashMap<>();
+        private boolean strictMode = true;
+        private boolean nonStrictFallback = false;
+        private int minimumWordLength = DEFAULT_MINIMUM_WORD_LENGTH;
+        private int maximumWordLength = DEFAULT_MAXIMUM_WORD_LENGTH;
+        private int cacheSize = 0;
+        private boolean statisticsEnabled = false;
+
+        private Builder() {
+        }
+
+        /**
+         * @see GermanWordSplitter#GermanWordSplitter(boolean)
+         */
+        public Builder hideInterfixCharacters(boolean hideInterfixCharacters) {
+            this.hideInterfixCharacters = hideInterfixCharacters;
+            return this;
+        }
+
+        /**
+         * Use the given words instead of the embedded dictionary. The set is not copied and must not be
+         * modified anymore if the splitter is used by several threads.
+         */
+        public Builder dictionary(Set<String> words) {
+            this.words = Objects.requireNonNull(words);
+            this.dictionaryFile = null;
+            return this;
+        }
+
+        /**
+         * Use a UTF-8 text file with one word per line instead of the embedded dictionary.
+         * The file is loaded by {@link #build()}. A {@link CompiledDictionary} file is
+         * memory-mapped instead.
+         */
+        public Builder dictionary(File plainTextDict) {
+            this.dictionaryFile = Objects.requireNonNull(plainTextDict);
+            this.words = null;
+            return this;
+        }
+
+        /**
+         * Use the given exception file from the class path instead of the embedded one,
+         * or no exception file at all if {@code filename} is {@code null}.
+         * @see AbstractWordSplitter#setExceptionFile(String)
+         */
+        public Builder exceptionFile(String filename) {
+            this.exceptionFile = filename;
+            return this;
+        }
+
+        /**
+         * Add an exception on top of the exception file.
+         * @see AbstractWordSplitter#addException(String, List)
+         */
+        public Builder exception(String completeWord, List<String> wordParts) {
+            exceptions.put(Objects.requireNonNull(completeWord), wordParts == null ? null : new ArrayList<>(wordParts));
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setStrictMode(boolean)
+         */
+        public Builder strictMode(boolean strictMode) {
+            this.strictMode = strictMode;
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setNonStrictFallback(boolean)
+         */
+        public Builder nonStrictFallback(boolean nonStrictFallback) {
+            this.nonStrictFallback = nonStrictFallback;
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setMinimumWordLength(int)
+         */
+        public Builder minimumWordLength(int minimumWordLength) {
+            this.minimumWordLength = minimumWordLength;
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setMaximumWordLength(int)
+         */
+        public Builder maximumWordLength(int maximumWordLength) {
+            this.maximumWordLength = maximumWordLength;
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setCacheSize(int)
+         */
+        public Builder cacheSize(int maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("Cache size must not be negative: " + maximumSize);
+            }
+            this.cacheSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * @see AbstractWordSplitter#setStatisticsEnabled(boolean)
+         */
+        public Builder statisticsEnabled(boolean enabled) {
+            this.statisticsEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Create the splitter. The builder can be used again afterwards, changing it doesn't
+         * affect splitters that have already been built.
+         */
+        public GermanWordSplitter build() throws IOException {
+            Set<String> dict = words;
+            if (dictionaryFile != null) {
+                dict = getWordList(dictionaryFile, GermanWordSplitter::loadWordList);
+            } else if (dict == null) {
+                dict = EmbeddedGermanDictionary.getWords();
+            }
+            ExceptionSplits exceptionSplits = exceptionFile != null ? ExceptionSplits.load(exceptionFile) : new ExceptionSplits();
+            if (!exceptions.isEmpty()) {
+                exceptionSplits = exceptionSplits.copy();
+            }
+            for (Map.Entry<String, List<String>> entry : exceptions.entrySet()) {
+                exceptionSplits.addSplit(entry.getKey(), entry.getValue());
+            }
+            return new GermanWordSplitter(this, dict, exceptionSplits);
+        }
+    }
+
+}
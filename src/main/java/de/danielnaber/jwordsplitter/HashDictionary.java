@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.*;
+
+/**
+ * A read-only set of lowercase words for fast lookups of character ranges. All characters
+ * are stored in one {@code char[]} arena, the words are found via an open addressing hash table
+ * of {@code int} indexes, so there are no objects per word. This is the dictionary used for
+ * word lists loaded from text files.
+ *
+ * <p>Instances are thread-safe once created.
+ * @since 4.8
+ */
+public final class HashDictionary extends AbstractSet<String> implements WordLookup {
+
+    private char[] chars = new char[64];
+    private int charCount;
+    /** Word {@code i} is {@code chars[starts[i]]} to {@code chars[starts[i + 1]]}. */
+    private int[] starts = new int[9];
+    private int[] hashes = new int[8];
+    private int size;
+    /** Index of the word plus one, 0 for empty slots. */
+    private int[] table = new int[16];
+
+    HashDictionary() {
+    }
+
+    /**
+     * Create a dictionary of the lowercased words. Empty words are ignored.
+     */
+    public static HashDictionary of(Collection<String> words) {
+        HashDictionary dict = new HashDictionary();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                dict.addWord(word);
+            }
+        }
+        dict.chars = Arrays.copyOf(dict.chars, dict.charCount);
+        return dict;
+    }
+
+    /**
+     * Add the lowercased word, unless it's already there.
+     * @return the index of the word, which is the number of words added before it
+     */
+    int addWord(CharSequence word) {
+        int hash = CaseFolding.hashCode(word, 0, word.length());
+        int index = indexOf(hash, word, 0, word.length(), true);
+        if (index >= 0) {
+            return index;
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        if (charCount + word.length() > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + word.length()));
+        }
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            starts = Arrays.copyOf(starts, size * 2 + 1);
+        }
+        for (int i = 0; i < word.length(); i++) {
+            chars[charCount++] = Character.toLowerCase(word.charAt(i));
+        }
+        index = size++;
+        starts[size] = charCount;
+        hashes[index] = hash;
+        insert(index);
+        return index;
+    }
+
+    /**
+     * @return the index of the word that equals the lowercased characters from {@code start} to {@code end}, or -1
+     */
+    int indexOf(CharSequence seq, int start, int end) {
+        return indexOf(CaseFolding.hashCode(seq, start, end), seq, start, end, true);
+    }
+
+    private int indexOf(int hash, CharSequence seq, int start, int end, boolean lowercase) {
+        int mask = table.length - 1;
+        for (int i = spread(hash) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int index = table[i] - 1;
+            if (hashes[index] == hash && equals(index, seq, start, end, lowercase)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean equals(int index, CharSequence seq, int start, int end, boolean lowercase) {
+        int wordStart = starts[index];
+        if (starts[index + 1] - wordStart != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = seq.charAt(i);
+            if ((lowercase ? Character.toLowerCase(c) : c) != chars[wordStart + i - start]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isWord(CharSequence seq, int start, int end) {
+        return start < end && indexOf(seq, start, end) >= 0;
+    }
+
+    /**
+     * @return whether the string is one of the (lowercase) words, compared case-sensitively like other sets do
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        String s = (String) o;
+        int hash = s.hashCode();
+        return indexOf(hash, s, 0, s.length(), false) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the words in the order they were added
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String word = new String(chars, starts[index], starts[index + 1] - starts[index]);
+                index++;
+                return word;
+            }
+        };
+    }
+
+    /**
+     * @return a copy that can be modified independently
+     */
+    HashDictionary copy() {
+        HashDictionary copy = new HashDictionary();
+        copy.chars = Arrays.copyOf(chars, charCount);
+        copy.charCount = charCount;
+        copy.starts = starts.clone();
+        copy.hashes = hashes.clone();
+        copy.size = size;
+        copy.table = table.clone();
+        return copy;
+    }
+
+    private void insert(int index) {
+        int mask = table.length - 1;
+        int i = spread(hashes[index]) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = index + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int index = 0; index < size; index++) {
+            insert(index);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The {@link SplitEvents} used if Java Flight Recorder is available.
+ */
+final class JfrSplitEvents extends SplitEvents {
+
+    private volatile EventType eventType;
+
+    @Override
+    Object begin() {
+        // checked first so that JFR isn't initialized by us and no events are created if nothing is recorded:
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        EventType type = eventType;
+        if (type == null) {
+            type = EventType.getEventType(SplitEvent.class);
+            eventType = type;
+        }
+        if (!type.isEnabled()) {
+            return null;
+        }
+        SplitEvent event = new SplitEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commit(Object event, String method, String word, int parts, int probes, boolean strictMode) {
+        SplitEvent splitEvent = (SplitEvent) event;
+        splitEvent.end();
+        if (splitEvent.shouldCommit()) {
+            splitEvent.method = method;
+            splitEvent.word = word;
+            splitEvent.wordLength = word.length();
+            splitEvent.parts = parts;
+            splitEvent.probes = probes;
+            splitEvent.strictMode = strictMode;
+            splitEvent.commit();
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.*;
+
+/**
+ * A dictionary made of a shared base dictionary plus a layer of added and a layer of removed
+ * words. Only the layers belong to the dictionary, the base isn't copied, so many dictionaries
+ * that differ from a large base by a few words, e.g. one per customer on top of the
+ * {@link EmbeddedGermanDictionary}, need little memory:
+ * <pre>
+ * Set&lt;String&gt; words = LayeredDictionary.on(EmbeddedGermanDictionary.getWords())
+ *     .withAdded(customerWords).withRemoved(customerStopWords);
+ * GermanWordSplitter splitter = GermanWordSplitter.builder().dictionary(words).build();
+ * </pre>
+ * Lookups only check a layer if it contains words of the length that's looked up.
+ *
+ * <p>Instances are read-only and thread-safe, {@link #withAdded} and {@link #withRemoved}
+ * return a new dictionary. The base must not be modified.
+ * @since 4.8
+ */
+public final class LayeredDictionary extends AbstractSet<String> implements WordLookup {
+
+    private final Set<String> base;
+    private final WordLookup baseLookup;
+    /** Words that are not in the base. */
+    private final HashDictionary added;
+    /** Words of the base that are hidden. */
+    private final HashDictionary removed;
+    private final long addedLengths;
+    private final long removedLengths;
+
+    private LayeredDictionary(Set<String> base, WordLookup baseLookup, HashDictionary added, HashDictionary removed) {
+        this.base = base;
+        this.baseLookup = baseLookup;
+        this.added = added;
+        this.removed = removed;
+        this.addedLengths = lengths(added);
+        this.removedLengths = lengths(removed);
+    }
+
+    /**
+     * @return a dictionary with the words of {@code base} and empty layers; if {@code base} is itself
+     *   a layered dictionary, its base is used and its layers are kept
+     */
+    public static LayeredDictionary on(Set<String> base) {
+        if (base instanceof LayeredDictionary) {
+            return (LayeredDictionary) base;
+        }
+        HashDictionary empty = HashDictionary.of(Collections.emptyList());
+        return new LayeredDictionary(Objects.requireNonNull(base), WordLookup.of(base), empty, empty);
+    }
+
+    /**
+     * @return a dictionary that also contains the lowercased words
+     */
+    public LayeredDictionary withAdded(Collection<String> words) {
+        HashDictionary additions = HashDictionary.of(words);
+        List<String> newAdded = new ArrayList<>(added);
+        for (String word : additions) {
+            if (!baseLookup.isWord(word, 0, word.length())) {
+                newAdded.add(word);
+            }
+        }
+        List<String> newRemoved = new ArrayList<>();
+        for (String word : removed) {
+            if (!additions.contains(word)) {
+                newRemoved.add(word);
+            }
+        }
+        return new LayeredDictionary(base, baseLookup, HashDictionary.of(newAdded), HashDictionary.of(newRemoved));
+    }
+
+    /**
+     * @return a dictionary that doesn't contain the words (compared case-insensitively)
+     */
+    public LayeredDictionary withRemoved(Collection<String> words) {
+        HashDictionary removals = HashDictionary.of(words);
+        List<String> newAdded = new ArrayList<>();
+        for (String word : added) {
+            if (!removals.contains(word)) {
+                newAdded.add(word);
+            }
+        }
+        List<String> newRemoved = new ArrayList<>(removed);
+        for (String word : removals) {
+            if (baseLookup.isWord(word, 0, word.length()) && !removed.contains(word)) {
+                newRemoved.add(word);
+            }
+        }
+        return new LayeredDictionary(base, baseLookup, HashDictionary.of(newAdded), HashDictionary.of(newRemoved));
+    }
+
+    @Override
+    public boolean isWord(CharSequence seq, int start, int end) {
+        long length = lengthBit(end - start);
+        if ((addedLengths & length) != 0 && added.isWord(seq, start, end)) {
+            return true;
+        }
+        if ((removedLengths & length) != 0 && removed.isWord(seq, start, end)) {
+            return false;
+        }
+        return baseLookup.isWord(seq, start, end);
+    }
+
+    @Override
+    public boolean marksInOnePass() {
+        return baseLookup.marksInOnePass();
+    }
+
+    @Override
+    public void markPrefixes(CharSequence seq, int start, int end, boolean[] wordEnds) {
+        baseLookup.markPrefixes(seq, start, end, wordEnds);
+        if (removedLengths != 0) {
+            for (int i = start + 1; i <= end; i++) {
+                if (wordEnds[i] && (removedLengths & lengthBit(i - start)) != 0 && removed.isWord(seq, start, i)) {
+                    wordEnds[i] = false;
+                }
+            }
+        }
+        if (addedLengths != 0) {
+            for (int i = start + 1; i <= end; i++) {
+                if ((addedLengths & lengthBit(i - start)) != 0 && added.isWord(seq, start, i)) {
+                    wordEnds[i] = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void markSuffixes(CharSequence seq, int start, int end, boolean[] wordStarts) {
+        baseLookup.markSuffixes(seq, start, end, wordStarts);
+        if (removedLengths != 0) {
+            for (int i = start; i < end; i++) {
+                if (wordStarts[i] && (removedLengths & lengthBit(end - i)) != 0 && removed.isWord(seq, i, end)) {
+                    wordStarts[i] = false;
+                }
+            }
+        }
+        if (addedLengths != 0) {
+            for (int i = start; i < end; i++) {
+                if ((addedLengths & lengthBit(end - i)) != 0 && added.isWord(seq, i, end)) {
+                    wordStarts[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the string is a word, compared case-sensitively like other sets do
+     */
+    @Override
+    public boolean contains(Object o) {
+        return added.contains(o) || (base.contains(o) && !removed.contains(o));
+    }
+
+    @Override
+    public int size() {
+        return base.size() - removed.size() + added.size();
+    }
+
+    /**
+     * @return the words of the base that haven't been removed, followed by the added words
+     */
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> baseWords = base.iterator();
+        Iterator<String> addedWords = added.iterator();
+        return new Iterator<String>() {
+            private String next;
+            @Override
+            public boolean hasNext() {
+                while (next == null && baseWords.hasNext()) {
+                    String word = baseWords.next();
+                    if (!removed.contains(word)) {
+                        next = word;
+                    }
+                }
+                return next != null || addedWords.hasNext();
+            }
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next == null) {
+                    return addedWords.next();
+                }
+                String word = next;
+                next = null;
+                return word;
+            }
+        };
+    }
+
+    /**
+     * @return a bit set of the word lengths, see {@link #lengthBit(int)}
+     */
+    private static long lengths(HashDictionary words) {
+        long lengths = 0;
+        for (String word : words) {
+            lengths |= lengthBit(word.length());
+        }
+        return lengths;
+    }
+
+    /**
+     * @return the bit for words of the given length, lengths of 64 and more share bit 0 (there are no empty words)
+     */
+    private static long lengthBit(int length) {
+        return length < 64 ? 1L << length : 1L;
+    }
+
+}
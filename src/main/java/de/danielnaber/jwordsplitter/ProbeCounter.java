@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * Counts the dictionary lookups of one call and enforces its {@link SplitBudget}. Without
+ * a budget, {@link #tryProbe()} only increments a counter. With a budget, the time and the
+ * interrupt status of the thread are checked every {@value #CHECK_INTERVAL} lookups.
+ */
+final class ProbeCounter {
+
+    private static final int CHECK_INTERVAL = 64;
+
+    private int probes;
+    private int steps;
+    private boolean hasBudget;
+    /** The number of probes at which {@link #checkBudget()} has to be called. */
+    private int limit = Integer.MAX_VALUE;
+    private int maxProbes = Integer.MAX_VALUE;
+    private long deadline;
+    private boolean hasDeadline;
+    private boolean exhausted;
+
+    /**
+     * Reset the counter for a new call.
+     * @param budget the budget of the call, {@code null} if unlimited
+     */
+    void start(SplitBudget budget) {
+        probes = 0;
+        steps = 0;
+        exhausted = false;
+        hasBudget = budget != null;
+        if (budget == null) {
+            limit = Integer.MAX_VALUE;
+            maxProbes = Integer.MAX_VALUE;
+            hasDeadline = false;
+        } else {
+            maxProbes = budget.getMaxProbes();
+            hasDeadline = budget.getTimeoutNanos() != Long.MAX_VALUE;
+            if (hasDeadline) {
+                deadline = System.nanoTime() + budget.getTimeoutNanos();
+            }
+            limit = 0;  // check the budget before the first lookup
+        }
+    }
+
+    /**
+     * @return whether there's budget left for another dictionary lookup, which is then counted
+     */
+    boolean tryProbe() {
+        if (probes >= limit && !checkBudget()) {
+            return false;
+        }
+        probes++;
+        return true;
+    }
+
+    /**
+     * Count work that doesn't look up words, e.g. enumerating splits of words that have already
+     * been found, so that it's limited by the time of the budget, too.
+     * @return whether there's budget left
+     */
+    boolean tryStep() {
+        if (exhausted) {
+            return false;
+        }
+        if (!hasBudget || ++steps < CHECK_INTERVAL) {
+            return true;
+        }
+        steps = 0;
+        if (isTimeUp()) {
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    private boolean checkBudget() {
+        if (exhausted || probes >= maxProbes || isTimeUp()) {
+            exhausted = true;
+            return false;
+        }
+        limit = (int) Math.min(maxProbes, (long) probes + CHECK_INTERVAL);
+        return true;
+    }
+
+    private boolean isTimeUp() {
+        return Thread.currentThread().isInterrupted() || hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return whether a budget has been given to {@link #start(SplitBudget)}
+     */
+    boolean hasBudget() {
+        return hasBudget;
+    }
+
+    int getProbes() {
+        return probes;
+    }
+
+    /**
+     * @return whether a lookup has been refused because the budget was used up
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the work of a single call of the splitter, e.g. to meet latency targets. When the
+ * budget is used up, the splitter stops looking up words and returns what it has found so far:
+ * the best split found, or the unsplit word. The thread being interrupted also ends the search.
+ * Budgets are immutable, so one instance can be used for all calls.
+ * @see AbstractWordSplitter#splitWord(String, SplitBudget)
+ * @see AbstractWordSplitter#getAllSplits(String, SplitBudget)
+ * @since 4.8
+ */
+public final class SplitBudget {
+
+    /** No limit, except for the thread being interrupted. */
+    public static final SplitBudget UNLIMITED = new SplitBudget(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Longer timeouts (more than 140 years) mean no timeout, as adding them to {@link System#nanoTime()}
+     * could overflow.
+     */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 2;
+
+    private final int maxProbes;
+    private final long timeoutNanos;
+
+    private SplitBudget(int maxProbes, long timeoutNanos) {
+        this.maxProbes = maxProbes;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * A budget of at most {@code maxProbes} dictionary lookups. Finding all words at the start or end of
+     * a range in one pass counts as one lookup (see {@link WordLookup#marksInOnePass()}).
+     */
+    public static SplitBudget ofProbes(int maxProbes) {
+        return UNLIMITED.withProbes(maxProbes);
+    }
+
+    /**
+     * A budget of the given time per call. The time is checked every few dictionary lookups,
+     * so it may be exceeded a little. Timeouts of more than {@code Long.MAX_VALUE / 2} nanoseconds
+     * mean no timeout.
+     */
+    public static SplitBudget ofTimeout(long timeout, TimeUnit unit) {
+        return UNLIMITED.withTimeout(timeout, unit);
+    }
+
+    /**
+     * @return a budget with the same timeout, but at most {@code maxProbes} dictionary lookups
+     */
+    public SplitBudget withProbes(int maxProbes) {
+        if (maxProbes < 0) {
+            throw new IllegalArgumentException("Maximum number of probes must not be negative: " + maxProbes);
+        }
+        return new SplitBudget(maxProbes, timeoutNanos);
+    }
+
+    /**
+     * @return a budget with the same maximum number of dictionary lookups, but the given timeout
+     */
+    public SplitBudget withTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        long timeoutNanos = unit.toNanos(timeout);
+        return new SplitBudget(maxProbes, timeoutNanos > MAX_TIMEOUT_NANOS ? Long.MAX_VALUE : timeoutNanos);
+    }
+
+    /** The maximum number of dictionary lookups, {@link Integer#MAX_VALUE} if unlimited. */
+    public int getMaxProbes() {
+        return maxProbes;
+    }
+
+    /** The timeout in nanoseconds, {@link Long#MAX_VALUE} if unlimited. */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "maxProbes=" + maxProbes + ", timeoutNanos=" + timeoutNanos;
+    }
+
+}
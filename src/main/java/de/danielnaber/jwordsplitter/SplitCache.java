@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of splitting results, keyed on the trimmed input. The cache is split into
+ * stripes by the hash of the input, each stripe is an LRU map with its own lock, so threads
+ * only contend if they look up words of the same stripe. Results are stored separately for
+ * {@code splitWord()} and {@code getSubWords()} and must not be modified after they have been added.
+ */
+final class SplitCache {
+
+    private final Stripe[] stripes;
+    private final int maximumSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    SplitCache(int maximumSize) {
+        this(maximumSize, new LongAdder(), new LongAdder(), new LongAdder());
+    }
+
+    private SplitCache(int maximumSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1,
+                Integer.highestOneBit(maximumSize));
+        this.stripes = new Stripe[stripeCount];
+        this.maximumSize = maximumSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        for (int i = 0; i < stripeCount; i++) {
+            // distribute the remainder so that the capacities add up to maximumSize:
+            stripes[i] = new Stripe(maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0), evictions);
+        }
+    }
+
+    List<String> get(String word, boolean subWords) {
+        Stripe stripe = stripeFor(word);
+        List<String> result = null;
+        synchronized (stripe) {
+            List<String>[] results = stripe.get(word);
+            if (results != null) {
+                result = results[subWords ? 1 : 0];
+            }
+        }
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    void put(String word, boolean subWords, List<String> result) {
+        Stripe stripe = stripeFor(word);
+        synchronized (stripe) {
+            List<String>[] results = stripe.get(word);
+            if (results == null) {
+                results = newListArray(2);
+                stripe.put(word, results);
+            }
+            results[subWords ? 1 : 0] = result;
+        }
+    }
+
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @return an empty cache of the same size that continues the statistics of this cache
+     */
+    SplitCache emptyCopy() {
+        return new SplitCache(maximumSize, hits, misses, evictions);
+    }
+
+    CacheStats getStats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maximumSize);
+    }
+
+    private Stripe stripeFor(String word) {
+        int hash = word.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newListArray(int capacity) {
+        return (List<String>[]) new List<?>[capacity];
+    }
+
+    private static class Stripe extends LinkedHashMap<String, List<String>[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>[]> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
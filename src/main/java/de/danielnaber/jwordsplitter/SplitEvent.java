@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import jdk.jfr.*;
+
+/**
+ * A Java Flight Recorder event for a call of {@code splitWord()}, {@code getSubWords()} or
+ * {@code getAllSplits()} that took longer than the threshold, 10ms by default. The threshold
+ * can be changed in the recording settings, e.g. with
+ * {@code jfr configure +de.danielnaber.jwordsplitter.Split#threshold=1ms} or
+ * {@code Recording.enable("de.danielnaber.jwordsplitter.Split").withThreshold(...)}.
+ * Events contain the input word, so recordings may contain text from your users.
+ */
+@Name("de.danielnaber.jwordsplitter.Split")
+@Label("Word Split")
+@Category("jWordSplitter")
+@Description("A slow call of the word splitter")
+@Threshold("10 ms")
+@StackTrace(false)
+class SplitEvent extends Event {
+
+    @Label("Method")
+    @Description("splitWord, getSubWords or getAllSplits")
+    String method;
+
+    @Label("Word")
+    String word;
+
+    @Label("Word Length")
+    int wordLength;
+
+    @Label("Parts")
+    @Description("The number of parts, or the number of splits for getAllSplits")
+    int parts;
+
+    @Label("Dictionary Lookups")
+    int probes;
+
+    @Label("Strict Mode")
+    boolean strictMode;
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * Emits Java Flight Recorder events for slow splits, see {@link SplitEvent}. JFR classes are
+ * only loaded if JFR is available, otherwise (e.g. on old Java 8 versions) a no-op instance is used.
+ */
+abstract class SplitEvents {
+
+    static final SplitEvents INSTANCE = create();
+
+    private static SplitEvents create() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (SplitEvents) Class.forName("de.danielnaber.jwordsplitter.JfrSplitEvents").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new SplitEvents() {
+                @Override
+                Object begin() {
+                    return null;
+                }
+                @Override
+                void commit(Object event, String method, String word, int parts, int probes, boolean strictMode) {
+                }
+            };
+        }
+    }
+
+    /**
+     * @return an event that has been started, or {@code null} if the event isn't recorded
+     */
+    abstract Object begin();
+
+    /**
+     * End the event returned by {@link #begin()} and record it if it took longer than the threshold.
+     */
+    abstract void commit(Object event, String method, String word, int parts, int probes, boolean strictMode);
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a word as offsets into the input, filled by {@link AbstractWordSplitter#splitWord(String, SplitResult)}.
+ * The strings of the parts are only created when they're requested with {@link #getPart(int)} or {@link #toList()},
+ * so code that only needs the offsets, like an indexer, can split words without allocating memory
+ * by re-using one result for many calls. A result must only be used by one thread at a time.
+ *
+ * <p>The part {@code i} covers the characters from {@link #getStart(int) getStart(i)} to
+ * {@link #getEnd(int) getEnd(i)} of the input. Interfix characters are either parts of their
+ * own, see {@link #isInterfix(int)}, or, if the splitter hides them, not part of any part:
+ * they're the characters between the end of a part and the start of the next one.
+ * Parts of exceptions whose text isn't the characters of the word (see
+ * {@link AbstractWordSplitter#addException(String, List)}) cover the characters of the whole exception.
+ * @since 4.8
+ */
+public final class SplitResult {
+
+    private static final int INTERFIX = 1;
+
+    private CharSequence input = "";
+    private int size;
+    /** For each part: its start offset, its end offset and flags. */
+    private int[] parts = new int[3 * 8];
+    /**
+     * The text of parts that aren't the characters of the input at their offsets, {@code null} until
+     * there's such a part, then as long as {@link #parts} has room for parts.
+     */
+    private String[] texts;
+
+    public SplitResult() {
+    }
+
+    /**
+     * A result with the given parts, as offsets into their concatenation.
+     */
+    static SplitResult of(List<String> parts) {
+        SplitResult result = new SplitResult();
+        result.reset(String.join("", parts));
+        int start = 0;
+        for (String part : parts) {
+            result.add(start, start + part.length(), false, null);
+            start += part.length();
+        }
+        return result;
+    }
+
+    /**
+     * @return the input, the offsets of the parts refer to it
+     */
+    public CharSequence getInput() {
+        return input;
+    }
+
+    /**
+     * @return the number of parts, which is 1 if the input could not be split and 0 for a {@code null} input
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the offset of the first character of the part in the input
+     */
+    public int getStart(int part) {
+        return parts[checkIndex(part) * 3];
+    }
+
+    /**
+     * @return the offset after the last character of the part in the input
+     */
+    public int getEnd(int part) {
+        return parts[checkIndex(part) * 3 + 1];
+    }
+
+    /**
+     * @return whether the part is an interfix, like the "s" of "Urlaub", "s", "orte"
+     */
+    public boolean isInterfix(int part) {
+        return (parts[checkIndex(part) * 3 + 2] & INTERFIX) != 0;
+    }
+
+    /**
+     * @return the part as returned by {@link AbstractWordSplitter#splitWord(String)}, created on each call
+     */
+    public String getPart(int part) {
+        checkIndex(part);
+        if (texts != null && texts[part] != null) {
+            return texts[part];
+        }
+        int start = parts[part * 3];
+        int end = parts[part * 3 + 1];
+        if (start == 0 && end == input.length() && input instanceof String) {
+            return (String) input;
+        }
+        return input.subSequence(start, end).toString();
+    }
+
+    /**
+     * @return the parts as returned by {@link AbstractWordSplitter#splitWord(String)}
+     */
+    public List<String> toList() {
+        if (size == 1 && isRange(0) && parts[0] == 0 && parts[1] == input.length() && input instanceof String) {
+            return Collections.singletonList((String) input);
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(getPart(i));
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+
+    // Used by the splitter to fill the result:
+
+    void reset(CharSequence input) {
+        this.input = input;
+        if (texts != null) {
+            Arrays.fill(texts, 0, size, null);
+        }
+        size = 0;
+    }
+
+    void add(int start, int end, boolean interfix, String text) {
+        if (size * 3 == parts.length) {
+            parts = Arrays.copyOf(parts, parts.length * 2);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, parts.length / 3);
+            }
+        }
+        parts[size * 3] = start;
+        parts[size * 3 + 1] = end;
+        parts[size * 3 + 2] = interfix ? INTERFIX : 0;
+        size++;
+        if (text != null) {
+            setText(size - 1, text);
+        }
+    }
+
+    void remove(int part) {
+        checkIndex(part);
+        System.arraycopy(parts, (part + 1) * 3, parts, part * 3, (size - part - 1) * 3);
+        if (texts != null) {
+            System.arraycopy(texts, part + 1, texts, part, size - part - 1);
+            texts[size - 1] = null;
+        }
+        size--;
+    }
+
+    void setRange(int part, int start, int end) {
+        parts[checkIndex(part) * 3] = start;
+        parts[part * 3 + 1] = end;
+    }
+
+    /**
+     * Set the text of a part that isn't the characters of the input at its offsets.
+     */
+    void setText(int part, String text) {
+        checkIndex(part);
+        if (texts == null) {
+            texts = new String[parts.length / 3];
+        }
+        texts[part] = text;
+    }
+
+    /**
+     * @return whether the part is the characters of the input at its offsets
+     */
+    boolean isRange(int part) {
+        return texts == null || texts[checkIndex(part)] == null;
+    }
+
+    /**
+     * @return whether the part is the given string, compared case-sensitively
+     */
+    boolean partEquals(int part, String s) {
+        if (!isRange(part)) {
+            return texts[part].equals(s);
+        }
+        int start = parts[part * 3];
+        int length = parts[part * 3 + 1] - start;
+        if (length != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(start + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move the parts by {@code offset} characters, after the input has been embedded in a longer one.
+     */
+    void shift(CharSequence newInput, int offset) {
+        input = newInput;
+        for (int i = 0; i < size * 3; i += 3) {
+            parts[i] += offset;
+            parts[i + 1] += offset;
+        }
+    }
+
+    private int checkIndex(int part) {
+        if (part < 0 || part >= size) {
+            throw new IndexOutOfBoundsException("Part " + part + ", size " + size);
+        }
+        return part;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * A snapshot of the statistics of a splitter, collected while statistics are enabled.
+ * Only {@code splitWord()} and {@code getSubWords()} are counted, including results
+ * returned from the cache.
+ * @see AbstractWordSplitter#setStatisticsEnabled(boolean)
+ * @since 4.8
+ */
+public final class SplitStatistics {
+
+    /** Words with at least this many characters share the last row of the latency histogram. */
+    public static final int MAX_TRACKED_WORD_LENGTH = 64;
+    /** Number of columns of the latency histogram. */
+    public static final int LATENCY_BUCKETS = 40;
+
+    private final long callCount;
+    private final long strictCallCount;
+    private final long probeCount;
+    private final long exceptionHitCount;
+    private final int maxRecursionDepth;
+    private final long nonStrictFallbackCount;
+    private final long inputTooLongCount;
+    private final long totalNanos;
+    private final long[][] latencyHistogram;
+
+    SplitStatistics(long callCount, long strictCallCount, long probeCount, long exceptionHitCount, int maxRecursionDepth,
+                    long nonStrictFallbackCount, long inputTooLongCount, long totalNanos, long[][] latencyHistogram) {
+        this.callCount = callCount;
+        this.strictCallCount = strictCallCount;
+        this.probeCount = probeCount;
+        this.exceptionHitCount = exceptionHitCount;
+        this.maxRecursionDepth = maxRecursionDepth;
+        this.nonStrictFallbackCount = nonStrictFallbackCount;
+        this.inputTooLongCount = inputTooLongCount;
+        this.totalNanos = totalNanos;
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    /** The number of words split, not including inputs that were too long. */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    /** The number of words split in strict mode. */
+    public long getStrictCallCount() {
+        return strictCallCount;
+    }
+
+    /** The number of words split in non-strict mode. */
+    public long getNonStrictCallCount() {
+        return callCount - strictCallCount;
+    }
+
+    /**
+     * The number of dictionary lookups. Finding all words at the start or end of a range in one
+     * pass counts as one lookup (see {@link WordLookup#marksInOnePass()}).
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    /** The number of times a word or a part of it was found in the exceptions. */
+    public long getExceptionHitCount() {
+        return exceptionHitCount;
+    }
+
+    /** The maximum recursion depth of a single split. */
+    public int getMaxRecursionDepth() {
+        return maxRecursionDepth;
+    }
+
+    /** The number of times non-strict mode used a part that's not a dictionary word. */
+    public long getNonStrictFallbackCount() {
+        return nonStrictFallbackCount;
+    }
+
+    /** The number of {@link InputTooLongException}s thrown, also by {@code iterateAllSplits()}. */
+    public long getInputTooLongCount() {
+        return inputTooLongCount;
+    }
+
+    /** The total time spent splitting, in nanoseconds. */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * The latency histogram for all word lengths: element {@code [length][i]} is the number of words
+     * with {@code length} characters (or {@link #MAX_TRACKED_WORD_LENGTH} and more in the last row)
+     * whose split took {@code 2^i} to {@code 2^(i+1)-1} nanoseconds (0 or 1 for {@code i == 0}).
+     */
+    public long[][] getLatencyHistogram() {
+        long[][] copy = new long[latencyHistogram.length][];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = latencyHistogram[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * The latency histogram for one word length.
+     * @see #getLatencyHistogram()
+     */
+    public long[] getLatencyHistogram(int wordLength) {
+        return latencyHistogram[Math.min(wordLength, MAX_TRACKED_WORD_LENGTH)].clone();
+    }
+
+    @Override
+    public String toString() {
+        return "calls=" + callCount + " (strict=" + strictCallCount + "), probes=" + probeCount +
+                ", exceptionHits=" + exceptionHitCount + ", maxRecursionDepth=" + maxRecursionDepth +
+                ", nonStrictFallbacks=" + nonStrictFallbackCount + ", inputTooLong=" + inputTooLongCount +
+                ", totalNanos=" + totalNanos;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+/**
+ * Management interface of a splitter's statistics, registered with
+ * {@link AbstractWordSplitter#registerStatisticsMBean(String)}.
+ * @since 4.8
+ */
+public interface SplitStatisticsMXBean {
+
+    /** Whether statistics are being collected. */
+    boolean isStatisticsEnabled();
+
+    /** The statistics collected so far, all 0 if statistics are disabled. */
+    SplitStatistics getStatistics();
+
+    /** Reset all counters to 0. */
+    void resetStatistics();
+
+}
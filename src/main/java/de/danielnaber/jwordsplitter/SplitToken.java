@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.List;
+
+/**
+ * A compound word found by {@link AbstractWordSplitter#splitText(CharSequence)}, with its position in the text.
+ * @since 4.8
+ */
+public final class SplitToken {
+
+    private final int start;
+    private final int end;
+    private final List<String> parts;
+
+    SplitToken(int start, int end, List<String> parts) {
+        this.start = start;
+        this.end = end;
+        this.parts = parts;
+    }
+
+    /** The offset of the first character of the word in the text. */
+    public int getStart() {
+        return start;
+    }
+
+    /** The offset after the last character of the word in the text. */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * The parts of the word, as returned by {@link AbstractWordSplitter#splitWord(String)}. The list
+     * cannot be modified, as all occurrences of a word in the text share the same list.
+     */
+    public List<String> getParts() {
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end + ":" + parts;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the statistics of a splitter while they're enabled. The counters are updated
+ * once per split from the counters of the thread's {@code SplitMemo}, so the splitting
+ * itself only increments plain fields.
+ */
+final class StatisticsRecorder {
+
+    private static final int ROWS = SplitStatistics.MAX_TRACKED_WORD_LENGTH + 1;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder strictCalls = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder exceptionHits = new LongAdder();
+    private final AtomicInteger maxRecursionDepth = new AtomicInteger();
+    private final LongAdder nonStrictFallbacks = new LongAdder();
+    private final LongAdder inputTooLong = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(ROWS * SplitStatistics.LATENCY_BUCKETS);
+
+    void recordCall(int wordLength, boolean strictMode, long nanos) {
+        calls.increment();
+        if (strictMode) {
+            strictCalls.increment();
+        }
+        totalNanos.add(nanos);
+        int row = Math.min(wordLength, SplitStatistics.MAX_TRACKED_WORD_LENGTH);
+        int bucket = Math.min(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1)), SplitStatistics.LATENCY_BUCKETS - 1);
+        latencies.incrementAndGet(row * SplitStatistics.LATENCY_BUCKETS + bucket);
+    }
+
+    void recordSplit(int probeCount, int exceptionHitCount, int recursionDepth, int nonStrictFallbackCount) {
+        probes.add(probeCount);
+        if (exceptionHitCount > 0) {
+            exceptionHits.add(exceptionHitCount);
+        }
+        if (nonStrictFallbackCount > 0) {
+            nonStrictFallbacks.add(nonStrictFallbackCount);
+        }
+        maxRecursionDepth.accumulateAndGet(recursionDepth, Math::max);
+    }
+
+    void recordExceptionHit() {
+        exceptionHits.increment();
+    }
+
+    void recordInputTooLong() {
+        inputTooLong.increment();
+    }
+
+    SplitStatistics getStatistics() {
+        long[][] histogram = new long[ROWS][SplitStatistics.LATENCY_BUCKETS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int bucket = 0; bucket < SplitStatistics.LATENCY_BUCKETS; bucket++) {
+                histogram[row][bucket] = latencies.get(row * SplitStatistics.LATENCY_BUCKETS + bucket);
+            }
+        }
+        return new SplitStatistics(calls.sum(), strictCalls.sum(), probes.sum(), exceptionHits.sum(),
+                maxRecursionDepth.get(), nonStrictFallbacks.sum(), inputTooLong.sum(), totalNanos.sum(), histogram);
+    }
+
+}
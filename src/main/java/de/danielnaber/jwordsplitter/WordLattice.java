@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.*;
+
+/**
+ * The dictionary words in one input word, as a graph over its character offsets:
+ * there's an edge from offset {@code start} to offset {@code end} if the characters
+ * between them are a dictionary word of at least the minimum length. Edges are looked
+ * up once per start offset, when they are first needed.
+ *
+ * <p>The lattice lazily enumerates the splits returned by {@link AbstractWordSplitter#getAllSplits(String)},
+ * in the same order: a split either starts with a word, followed by the rest unsplit or split
+ * recursively, or ends with a word, preceded by the rest unsplit or split recursively. Splits
+ * that exist both ways are only returned in the first way.
+ */
+final class WordLattice {
+
+    private final String word;
+    private final WordLookup dictionary;
+    private final int minimumWordLength;
+    private final boolean[][] wordEnds;
+    private final ProbeCounter probes = new ProbeCounter();
+
+    /**
+     * @param budget limits the dictionary lookups, {@code null} for no limit; when it's used up,
+     *   no more words are found, so the enumeration of splits ends
+     */
+    WordLattice(String word, WordLookup dictionary, int minimumWordLength, SplitBudget budget) {
+        this.word = word;
+        this.dictionary = dictionary;
+        this.minimumWordLength = minimumWordLength;
+        this.wordEnds = new boolean[word.length() + 1][];
+        probes.start(budget);
+    }
+
+    /**
+     * @return whether the characters from {@code start} to {@code end} are a dictionary word
+     *   of at least the minimum length
+     */
+    boolean isWord(int start, int end) {
+        if (end - start < minimumWordLength) {
+            return false;
+        }
+        boolean[] ends = wordEnds[start];
+        if (ends == null) {
+            ends = findWordEnds(start);
+            wordEnds[start] = ends;
+        }
+        return ends[end];
+    }
+
+    private boolean[] findWordEnds(int start) {
+        boolean[] ends = new boolean[word.length() + 1];
+        if (dictionary.marksInOnePass()) {
+            if (probes.tryProbe()) {
+                dictionary.markPrefixes(word, start, word.length(), ends);
+            }
+        } else {
+            for (int end = start + minimumWordLength; end <= word.length() && probes.tryProbe(); end++) {
+                ends[end] = dictionary.isWord(word, start, end);
+            }
+        }
+        return ends;
+    }
+
+    /**
+     * @return the number of dictionary lookups so far, finding all words at an offset in one pass counts as one
+     */
+    int getProbeCount() {
+        return probes.getProbes();
+    }
+
+    /**
+     * @return all splits of the word with at least two parts, computed on demand
+     */
+    Iterator<List<String>> splits() {
+        Splits splits = new Splits(0, word.length());
+        return new Iterator<List<String>>() {
+            @Override
+            public boolean hasNext() {
+                return splits.hasNext();
+            }
+            @Override
+            public List<String> next() {
+                int[] boundaries = splits.next();
+                String[] parts = new String[boundaries.length - 1];
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = word.substring(boundaries[i], boundaries[i + 1]);
+                }
+                return Arrays.asList(parts);
+            }
+        };
+    }
+
+    /**
+     * @return whether the split with the given boundaries starts with a word followed by
+     *   either an unsplit rest or a valid split of the rest, i.e. whether it's enumerated
+     *   when splitting from the left
+     */
+    private boolean isSplitFromLeft(int[] boundaries) {
+        if (!isWord(boundaries[0], boundaries[1])) {
+            return false;
+        }
+        if (boundaries.length == 3) {
+            return boundaries[2] - boundaries[1] > minimumWordLength;
+        }
+        return isSplit(boundaries, 1);
+    }
+
+    /**
+     * Whether the parts starting at part {@code firstPart} are a split that's enumerated by {@link Splits}.
+     * This is the case if all parts but at most one are words of at least the minimum length, and
+     * there's a part longer than the minimum length - that part is the rest that's not a word (if any).
+     */
+    private boolean isSplit(int[] boundaries, int firstPart) {
+        int nonWords = 0;
+        int nonWordLength = 0;
+        boolean hasLongWord = false;
+        for (int i = firstPart; i < boundaries.length - 1; i++) {
+            int length = boundaries[i + 1] - boundaries[i];
+            if (!isWord(boundaries[i], boundaries[i + 1])) {
+                nonWords++;
+                nonWordLength = length;
+            } else if (length > minimumWordLength) {
+                hasLongWord = true;
+            }
+        }
+        if (nonWords == 0) {
+            return hasLongWord;
+        }
+        return nonWords == 1 && nonWordLength > minimumWordLength;
+    }
+
+    /**
+     * Enumerates the splits of the characters from {@code start} to {@code end} as arrays of boundary offsets.
+     */
+    private class Splits implements Iterator<int[]> {
+
+        private final int start;
+        private final int end;
+        private boolean fromLeft = true;
+        private int pos;
+        private Splits restSplits;
+        private int[] next;
+        private boolean done;
+
+        Splits(int start, int end) {
+            this.start = start;
+            this.end = end;
+            this.pos = start + minimumWordLength;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = advance();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int[] result = next;
+            next = null;
+            return result;
+        }
+
+        private int[] advance() {
+            while (true) {
+                if (restSplits != null) {
+                    while (restSplits.hasNext()) {
+                        int[] split = fromLeft ? prepend(start, restSplits.next()) : append(restSplits.next(), end);
+                        if (fromLeft || !isSplitFromLeft(split)) {
+                            return split;
+                        }
+                    }
+                    restSplits = null;
+                    pos = fromLeft ? pos + 1 : pos - 1;
+                    continue;
+                }
+                if (fromLeft && pos >= end - minimumWordLength) {
+                    fromLeft = false;
+                    pos = end - minimumWordLength;
+                }
+                if (!fromLeft && pos <= start + minimumWordLength) {
+                    return null;
+                }
+                if (probes.hasBudget()) {
+                    if (!probes.tryStep()) {
+                        return null;
+                    }
+                } else if (Thread.interrupted()) {
+                    throw new RuntimeException(new InterruptedException());
+                }
+                if (fromLeft ? isWord(start, pos) : isWord(pos, end)) {
+                    restSplits = fromLeft ? new Splits(pos, end) : new Splits(start, pos);
+                    int[] split = {start, pos, end};
+                    if (fromLeft || !isSplitFromLeft(split)) {
+                        return split;
+                    }
+                } else {
+                    pos = fromLeft ? pos + 1 : pos - 1;
+                }
+            }
+        }
+
+        private int[] prepend(int boundary, int[] boundaries) {
+            int[] result = new int[boundaries.length + 1];
+            result[0] = boundary;
+            System.arraycopy(boundaries, 0, result, 1, boundaries.length);
+            return result;
+        }
+
+        private int[] append(int[] boundaries, int boundary) {
+            int[] result = Arrays.copyOf(boundaries, boundaries.length + 1);
+            result[boundaries.length] = boundary;
+            return result;
+        }
+    }
+
+}
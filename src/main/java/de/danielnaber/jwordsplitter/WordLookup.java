@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import java.util.Set;
+
+/**
+ * Looks up dictionary words in ranges of characters, without creating strings for them.
+ * Words are compared case-insensitively: the characters of the input are lowercased with
+ * {@link Character#toLowerCase(char)}, the words of the dictionary are expected to be in lowercase.
+ *
+ * <p>The splitter uses the dictionary through this interface. Dictionaries that implement it,
+ * like {@link HashDictionary} and {@link CompiledDictionary}, are used directly, other sets of
+ * words are wrapped with {@link #of(Set)}. Implementations must be thread-safe for reading.
+ * @since 4.8
+ */
+public interface WordLookup {
+
+    /**
+     * @return whether the characters from {@code start} (inclusive) to {@code end} (exclusive)
+     *   of {@code seq}, lowercased, are a word of the dictionary
+     */
+    boolean isWord(CharSequence seq, int start, int end);
+
+    /**
+     * Whether {@link #markPrefixes} and {@link #markSuffixes} find all words in one pass over
+     * the input, so that they're faster than calling {@link #isWord} for each position.
+     */
+    default boolean marksInOnePass() {
+        return false;
+    }
+
+    /**
+     * Find all dictionary words that start at {@code start} and end at or before {@code end}.
+     * @param wordEnds filled so that {@code wordEnds[i]} for {@code start < i <= end} is true
+     *   if the characters from {@code start} to {@code i} are a word (other elements are not modified)
+     */
+    default void markPrefixes(CharSequence seq, int start, int end, boolean[] wordEnds) {
+        for (int i = start + 1; i <= end; i++) {
+            wordEnds[i] = isWord(seq, start, i);
+        }
+    }
+
+    /**
+     * Find all dictionary words that end at {@code end} and start at or after {@code start}.
+     * @param wordStarts filled so that {@code wordStarts[i]} for {@code start <= i < end} is true
+     *   if the characters from {@code i} to {@code end} are a word (other elements are not modified)
+     */
+    default void markSuffixes(CharSequence seq, int start, int end, boolean[] wordStarts) {
+        for (int i = start; i < end; i++) {
+            wordStarts[i] = isWord(seq, i, end);
+        }
+    }
+
+    /**
+     * @return the set itself if it implements this interface, otherwise a lookup that
+     *   calls {@link Set#contains(Object)} with the lowercased characters
+     */
+    static WordLookup of(Set<String> words) {
+        if (words instanceof WordLookup) {
+            return (WordLookup) words;
+        }
+        return (seq, start, end) -> start < end && words.contains(CaseFolding.toLowerCase(seq, start, end));
+    }
+
+}
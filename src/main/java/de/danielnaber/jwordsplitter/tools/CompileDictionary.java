@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.tools;
+
+import de.danielnaber.jwordsplitter.CompiledDictionary;
+import de.danielnaber.jwordsplitter.EmbeddedGermanDictionary;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Command-line tool that converts plain text word lists (one word per line, UTF-8)
+ * into the binary format of {@link CompiledDictionary}, which can then be memory-mapped.
+ * Lines starting with {@code #} and empty lines are ignored, words are lowercased and
+ * duplicates are removed. Words must only consist of letters and hyphens.
+ *
+ * <p>Words of the word lists can be removed with a file of regular expressions
+ * ({@code -r}): a word is removed if any of the expressions matches a part of it.
+ * Words of additional lists ({@code -a}) are never removed. The Maven build uses this
+ * to create the embedded dictionary.
+ *
+ * <p>With {@code -e}, the words of the embedded dictionary are added, too. Without word lists,
+ * this exports the embedded dictionary to a file that can be memory-mapped by several processes,
+ * see {@link EmbeddedGermanDictionary#DICTIONARY_FILE_PROPERTY}.
+ */
+public final class CompileDictionary {
+
+    private CompileDictionary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> removalFiles = new ArrayList<>();
+        List<Path> additionFiles = new ArrayList<>();
+        List<Path> positionalArgs = new ArrayList<>();
+        boolean embedded = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-r") && i + 1 < args.length) {
+                removalFiles.add(Paths.get(args[++i]));
+            } else if (args[i].equals("-a") && i + 1 < args.length) {
+                additionFiles.add(Paths.get(args[++i]));
+            } else if (args[i].equals("-e")) {
+                embedded = true;
+            } else {
+                positionalArgs.add(Paths.get(args[i]));
+            }
+        }
+        if (positionalArgs.isEmpty() || positionalArgs.size() < 2 && !embedded) {
+            System.out.println("Usage: " + CompileDictionary.class.getSimpleName() +
+                    " [-r removals.txt] [-a additions.txt]... [-e] <output.dict> <wordList.txt>...");
+            System.out.println("    -r  regular expressions, words of the word lists that match one of them are removed");
+            System.out.println("    -a  words to be added, not affected by -r");
+            System.out.println("    -e  add the words of the embedded dictionary, not affected by -r");
+            System.exit(1);
+        }
+        Path output = positionalArgs.get(0);
+        List<Pattern> removals = new ArrayList<>();
+        for (Path removalFile : removalFiles) {
+            for (Line line : readLines(removalFile)) {
+                try {
+                    removals.add(Pattern.compile(line.text));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException(line.location() + ": invalid regular expression: " + line.text, e);
+                }
+            }
+        }
+        Set<String> words = new HashSet<>();
+        int lineCount = 0;
+        int removedCount = 0;
+        for (Path input : positionalArgs.subList(1, positionalArgs.size())) {
+            for (Line line : readLines(input)) {
+                lineCount++;
+                if (matchesAny(removals, line.text)) {
+                    removedCount++;
+                } else {
+                    words.add(validWord(line));
+                }
+            }
+        }
+        for (Path input : additionFiles) {
+            for (Line line : readLines(input)) {
+                lineCount++;
+                words.add(validWord(line));
+            }
+        }
+        if (embedded) {
+            Set<String> embeddedWords = EmbeddedGermanDictionary.getWords();
+            lineCount += embeddedWords.size();
+            words.addAll(embeddedWords);
+        }
+        CompiledDictionary dict = CompiledDictionary.compile(words);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            dict.write(out);
+        }
+        System.out.println("Wrote " + dict.size() + " words to " + output + " (" + Files.size(output) + " bytes) - " +
+                lineCount + " lines read, " + removedCount + " removed, " +
+                (lineCount - removedCount - dict.size()) + " duplicates");
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String word) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(word).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String validWord(Line line) {
+        String word = line.text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!Character.isLetter(c) && c != '-') {
+                throw new IllegalArgumentException(line.location() + ": invalid character '" + c + "' in word: " + line.text);
+            }
+        }
+        return word;
+    }
+
+    /**
+     * @return the trimmed lines of the file, without comments and empty lines
+     */
+    private static List<Line> readLines(Path file) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                String text = line.trim();
+                if (!text.isEmpty() && !text.startsWith("#")) {
+                    lines.add(new Line(file, lineNumber, text));
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static class Line {
+
+        private final Path file;
+        private final int lineNumber;
+        private final String text;
+
+        Line(Path file, int lineNumber, String text) {
+            this.file = file;
+            this.lineNumber = lineNumber;
+            this.text = text;
+        }
+
+        String location() {
+            return file + ", line " + lineNumber;
+        }
+    }
+
+}
@@ -16,7 +16,8 @@
 package de.danielnaber.jwordsplitter.tools;
 
 import java.io.*;
-import java.util.HashSet;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -42,7 +43,7 @@ public final class FileTools
             ) {
             String line;
             while ((line = br.readLine()) != null) {
-                words.add(line.trim().toLowerCase());
+                words.add(line.trim().toLowerCase(Locale.ROOT));
             }
         }
         return words;
@@ -1,88 +1,248 @@
-/*
- * Copyright 2004-2007 Sven Abels
- * Copyright 2012 Daniel Naber (www.danielnaber.de)
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package de.danielnaber.jwordsplitter.tools;
-
-import de.danielnaber.jwordsplitter.AbstractWordSplitter;
-import de.danielnaber.jwordsplitter.GermanWordSplitter;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Scanner;
-
-/**
- * Simple command-line tool for decomposing German compound words.
- *
- * @author Daniel Naber
- */
-public final class TestjWordSplitterGerman {
-
-    private TestjWordSplitterGerman() {
-    }
-
-    public static void main(String[] args) throws IOException {
-        final long startTime = System.currentTimeMillis();
-        if (args.length < 1 || args.length > 4 || args[0].equals("-h") || args[0].equals("--help")) {
-            usage();
-        }
-        int argCount = 0;
-        String plainDict = null;
-        boolean hideGlueChars = true;
-        while (argCount < args.length) {
-            if (args[argCount].equals("-h")) {
-                usage();
-            } else if (args[argCount].equals("-d")) {
-                plainDict = args[++argCount];
-            } else if (args[argCount].equals("-f")) {
-                hideGlueChars = false;
-            }
-            argCount++;
-        }
-        final String inputFile = args[argCount-1];
-        final AbstractWordSplitter wordSplitter;
-        if (plainDict != null) {
-            wordSplitter = new GermanWordSplitter(hideGlueChars, new File(plainDict));
-        } else {
-            wordSplitter = new GermanWordSplitter(hideGlueChars);
-        }
-        wordSplitter.setStrictMode(true);
-        try (Scanner scanner = new Scanner(new File(inputFile))) {
-            while (scanner.hasNext()) {
-                final String token = scanner.next();
-                final Collection<String> col = wordSplitter.splitWord(token);
-                for (Iterator<String> it = col.iterator(); it.hasNext();) {
-                    System.out.print(it.next());
-                    if (it.hasNext()) {
-                        System.out.print(", ");
-                    }
-                }
-                System.out.println();
-            }
-        }
-        System.err.println("Time: " + (System.currentTimeMillis()-startTime)+ "ms");
-    }
-
-    private static void usage() {
-        System.out.println("Usage: TestjWordSplitterGerman [-f] [-d dictionary] <file>");
-        System.out.println("    <file> Textdatei mit zu zerlegenden Wörtern");
-        System.out.println("    -f  Fugenelemente mit ausgeben");
-        System.out.println("    -d  Wortliste mit potenziellen Komposita-Teilen (statt der integrierten)");
-        System.exit(1);
-    }
-
-}
+/*
+ * Copyright 2004-2007 Sven Abels
+ * Copyright 2012 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter.tools;
+
+import de.danielnaber.jwordsplitter.AbstractWordSplitter;
+import de.danielnaber.jwordsplitter.GermanWordSplitter;
+import de.danielnaber.jwordsplitter.InputTooLongException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Simple command-line tool for decomposing German compound words. It splits
+ * each whitespace-separated token of the input files and prints one line per
+ * token with the parts separated by comma. With more than one thread, the tokens
+ * are split in batches in parallel, the output order is still the input order.
+ * Tokens that are too long to be split are printed unsplit.
+ *
+ * @author Daniel Naber
+ */
+public final class TestjWordSplitterGerman {
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Most tokens of a text are frequent words, so even a small cache helps a lot. */
+    private static final int CACHE_SIZE = 100_000;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final AbstractWordSplitter wordSplitter;
+    private final Writer out;
+    private final ExecutorService executor;
+    private final int maxPendingBatches;
+    private final Deque<Future<String>> pendingBatches = new ArrayDeque<>();
+    private List<String> batch = new ArrayList<>(BATCH_SIZE);
+    private long tokenCount;
+
+    private TestjWordSplitterGerman(AbstractWordSplitter wordSplitter, Writer out, int threads) {
+        this.wordSplitter = wordSplitter;
+        this.out = out;
+        this.executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        this.maxPendingBatches = threads * 2;
+    }
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.nanoTime();
+        if (args.length < 1 || args[0].equals("-h") || args[0].equals("--help")) {
+            usage();
+        }
+        int argCount = 0;
+        String plainDict = null;
+        String outputFile = null;
+        boolean hideGlueChars = true;
+        int threads = 1;
+        List<Path> inputFiles = new ArrayList<>();
+        while (argCount < args.length) {
+            if (args[argCount].equals("-h")) {
+                usage();
+            } else if (args[argCount].equals("-d") && argCount + 1 < args.length) {
+                plainDict = args[++argCount];
+            } else if (args[argCount].equals("-f")) {
+                hideGlueChars = false;
+            } else if (args[argCount].equals("-t")) {
+                threads = parseThreads(args, ++argCount);
+            } else if (args[argCount].equals("-o") && argCount + 1 < args.length) {
+                outputFile = args[++argCount];
+            } else {
+                inputFiles.add(Paths.get(args[argCount]));
+            }
+            argCount++;
+        }
+        if (inputFiles.isEmpty()) {
+            usage();
+        }
+        final GermanWordSplitter.Builder builder = GermanWordSplitter.builder()
+                .hideInterfixCharacters(hideGlueChars)
+                .strictMode(true)
+                .cacheSize(CACHE_SIZE);
+        if (plainDict != null) {
+            builder.dictionary(new File(plainDict));
+        }
+        final AbstractWordSplitter wordSplitter = builder.build();
+        long byteCount = 0;
+        final long tokenCount;
+        OutputStream outputStream = outputFile != null ? new FileOutputStream(outputFile) : new FileOutputStream(FileDescriptor.out);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            TestjWordSplitterGerman splitter = new TestjWordSplitterGerman(wordSplitter, out, threads);
+            try {
+                for (Path inputFile : inputFiles) {
+                    splitter.process(inputFile);
+                    byteCount += Files.size(inputFile);
+                }
+                splitter.finish();
+            } finally {
+                splitter.shutdown();
+            }
+            tokenCount = splitter.tokenCount;
+        }
+        final double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.err.printf(Locale.ENGLISH, "Time: %.0fms, %d tokens (%.0f tokens/s), %.1f MB (%.2f MB/s), %d thread(s)%n",
+                seconds * 1000, tokenCount, tokenCount / seconds,
+                byteCount / 1_000_000.0, byteCount / 1_000_000.0 / seconds, threads);
+    }
+
+    private void process(Path inputFile) throws IOException {
+        try (Reader reader = Files.newBufferedReader(inputFile, StandardCharsets.UTF_8)) {
+            final char[] buffer = new char[BUFFER_SIZE];
+            final StringBuilder token = new StringBuilder();
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                for (int i = 0; i < length; i++) {
+                    final char c = buffer[i];
+                    if (Character.isWhitespace(c)) {
+                        if (token.length() > 0) {
+                            addToken(token.toString());
+                            token.setLength(0);
+                        }
+                    } else {
+                        token.append(c);
+                    }
+                }
+            }
+            if (token.length() > 0) {
+                addToken(token.toString());
+            }
+        }
+    }
+
+    private void addToken(String token) throws IOException {
+        batch.add(token);
+        tokenCount++;
+        if (batch.size() == BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (executor == null) {
+            writeSplits(batch, out);
+            batch.clear();
+            return;
+        }
+        final List<String> tokens = batch;
+        batch = new ArrayList<>(BATCH_SIZE);
+        pendingBatches.add(executor.submit(() -> {
+            StringWriter writer = new StringWriter(tokens.size() * 32);
+            writeSplits(tokens, writer);
+            return writer.toString();
+        }));
+        // limit the memory used by batches that are waiting for an earlier batch:
+        while (pendingBatches.size() > maxPendingBatches) {
+            writePendingBatch();
+        }
+    }
+
+    private void finish() throws IOException {
+        flushBatch();
+        while (!pendingBatches.isEmpty()) {
+            writePendingBatch();
+        }
+    }
+
+    private void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writePendingBatch() throws IOException {
+        try {
+            out.write(pendingBatches.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static int parseThreads(String[] args, int index) {
+        int threads = 0;
+        if (index < args.length) {
+            try {
+                threads = Integer.parseInt(args[index]);
+            } catch (NumberFormatException e) {
+                // handled below
+            }
+        }
+        if (threads < 1) {
+            System.out.println("-t erwartet eine Anzahl Threads von mindestens 1");
+            usage();
+        }
+        return threads;
+    }
+
+    private void writeSplits(List<String> tokens, Writer writer) throws IOException {
+        for (String token : tokens) {
+            List<String> parts;
+            try {
+                parts = wordSplitter.splitWord(token);
+            } catch (InputTooLongException e) {
+                parts = Collections.singletonList(token);
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writer.write(parts.get(i));
+            }
+            writer.write(LINE_SEPARATOR);
+        }
+    }
+
+    private static void usage() {
+        System.out.println("Usage: TestjWordSplitterGerman [-f] [-d dictionary] [-t threads] [-o output] <file>...");
+        System.out.println("    <file> UTF-8-Textdatei(en) mit zu zerlegenden Wörtern");
+        System.out.println("    -f  Fugenelemente mit ausgeben");
+        System.out.println("    -d  Wortliste mit potenziellen Komposita-Teilen (statt der integrierten)");
+        System.out.println("    -t  Anzahl der Threads (Standard: 1), die Reihenfolge der Ausgabe bleibt erhalten");
+        System.out.println("    -o  Ausgabedatei (UTF-8) statt der Standardausgabe");
+        System.exit(1);
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class CompiledDictionaryTest {
+
+    private static final List<String> WORDS = Arrays.asList("haus", "häuser", "hausen", "maus", "mäuse", "zaun", "a", "", "haus");
+
+    @Test
+    public void testContains() {
+        CompiledDictionary dict = CompiledDictionary.compile(WORDS);
+        assertThat(dict.size(), is(7));
+        for (String word : WORDS) {
+            assertThat(word, dict.contains(word), is(!word.isEmpty()));
+        }
+        assertFalse(dict.contains("hau"));
+        assertFalse(dict.contains("hausens"));
+        assertFalse(dict.contains("Haus"));
+        assertFalse(dict.contains("aus"));
+        assertFalse(dict.contains(""));
+        assertFalse(dict.contains(null));
+        assertFalse(dict.contains("Mausefalle", 0, 4));
+        assertTrue(dict.contains("mausefalle", 0, 4));
+        assertTrue(dict.contains("Gartenzaun", 6, 10));
+        assertTrue(dict.contains(new StringBuilder("xhausx"), 1, 5));
+        assertFalse(dict.contains("haus", 2, 2));
+    }
+
+    @Test
+    public void testMarkPrefixesAndSuffixes() {
+        CompiledDictionary dict = CompiledDictionary.compile(Arrays.asList("haus", "hausmaus", "maus", "aus", "zaun"));
+        String input = "xHausMausx";
+        boolean[] wordEnds = new boolean[input.length() + 1];
+        Arrays.fill(wordEnds, true);
+        dict.markPrefixes(input, 1, 9, wordEnds);
+        assertThat(Arrays.toString(wordEnds), is(Arrays.toString(new boolean[] {
+            true, true, false, false, false, true, false, false, false, true, true})));
+        boolean[] wordStarts = new boolean[input.length() + 1];
+        Arrays.fill(wordStarts, true);
+        dict.markSuffixes(input, 1, 9, wordStarts);
+        assertThat(Arrays.toString(wordStarts), is(Arrays.toString(new boolean[] {
+            true, true, false, false, false, true, true, false, false, true, true})));
+    }
+
+    @Test
+    public void testIteration() {
+        CompiledDictionary dict = CompiledDictionary.compile(WORDS);
+        List<String> expected = new ArrayList<>(new TreeSet<>(WORDS));
+        expected.remove("");
+        assertThat(new ArrayList<>(dict), is(expected));
+        assertEquals(new HashSet<>(expected), dict);
+        assertTrue(CompiledDictionary.compile(Collections.<String>emptyList()).isEmpty());
+        assertFalse(CompiledDictionary.compile(Collections.<String>emptyList()).iterator().hasNext());
+    }
+
+    @Test
+    public void testEmbeddedDictionary() {
+        Set<String> words = EmbeddedGermanDictionary.getWords();
+        CompiledDictionary dict = CompiledDictionary.compile(words);
+        assertThat(dict.size(), is(words.size()));
+        for (String word : words) {
+            assertTrue(word, dict.contains(word));
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        CompiledDictionary dict = CompiledDictionary.compile(WORDS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dict.write(out);
+        CompiledDictionary readDict = CompiledDictionary.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(dict, readDict);
+        Path file = Files.createTempFile("jwordsplitter-junit", ".dict");
+        try {
+            Files.write(file, out.toByteArray());
+            CompiledDictionary mappedDict = CompiledDictionary.map(file);
+            assertEquals(dict, mappedDict);
+            assertTrue(mappedDict.contains("mäuse"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadIncompleteData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompiledDictionary.compile(WORDS).write(out);
+        byte[] data = out.toByteArray();
+        for (int length : new int[] {24, data.length / 2, data.length - 1}) {
+            try {
+                CompiledDictionary.read(new ByteArrayInputStream(Arrays.copyOf(data, length)));
+                fail("Incomplete data of " + length + " bytes has been read");
+            } catch (IOException expected) {}
+        }
+    }
+
+    @Test
+    public void testSplitterWithCompiledDictionary() throws IOException {
+        AbstractWordSplitter expected = new GermanWordSplitter(false);
+        Path file = Files.createTempFile("jwordsplitter-junit", ".dict");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                ((CompiledDictionary) EmbeddedGermanDictionary.getWords()).write(out);
+            }
+            assertTrue(CompiledDictionary.isCompiled(file));
+            List<AbstractWordSplitter> splitters = new ArrayList<>();
+            splitters.add(new GermanWordSplitter(false, file.toFile()));
+            try (InputStream is = Files.newInputStream(file)) {
+                splitters.add(new GermanWordSplitter(false, is));
+            }
+            splitters.add(GermanWordSplitter.builder().dictionary(file.toFile()).build());
+            for (AbstractWordSplitter splitter : splitters) {
+                assertTrue(splitter.words instanceof CompiledDictionary);
+                for (String word : Arrays.asList("Verhaltensstörung", "Sauerstoffflaschenstörung", "Haustür")) {
+                    assertThat(splitter.splitWord(word), is(expected.splitWord(word)));
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testIsCompiled() throws IOException {
+        assertFalse(CompiledDictionary.isCompiled(new BufferedInputStream(new ByteArrayInputStream("haus\n".getBytes("utf-8")))));
+        assertFalse(CompiledDictionary.isCompiled(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompiledDictionary.compile(WORDS).write(out);
+        InputStream stream = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(CompiledDictionary.isCompiled(stream));
+        assertThat(CompiledDictionary.read(stream).size(), is(7));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidInput() throws IOException {
+        CompiledDictionary.read(new ByteArrayInputStream("haus\nmaus\nzaun\nbaum\n".getBytes("utf-8")));
+    }
+
+}
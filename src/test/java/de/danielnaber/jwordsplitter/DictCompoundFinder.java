@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
@@ -60,8 +61,9 @@ class DictCompoundFinder {
     }
     
     private void isIgnorableCompound(String word) {
-        List<List<String>> splits = splitter.getAllSplits(word);
-        for (List<String> split : splits) {
+        Iterator<List<String>> splits = splitter.iterateAllSplits(word);
+        while (splits.hasNext()) {
+            List<String> split = splits.next();
             if (!protectedWords.contains(word) && words.containsAll(split)) {
                 //System.out.println(splitCount + " " +  removeCount + ". REMOVE: " + word + " ("+split+")");
                 System.out.println("^" + word + "$");
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class DictionaryUpdateTest {
+
+    @Test
+    public void testAddAndRemoveWords() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false, new HashSet<>(Arrays.asList("haus", "tür")));
+        splitter.setCacheSize(100);
+        assertThat(splitter.splitWord("Haustürschlüssel"), is(Collections.singletonList("Haustürschlüssel")));
+        splitter.addWords(Collections.singletonList("Schlüssel"));
+        assertThat(splitter.splitWord("Haustürschlüssel"), is(Arrays.asList("Haus", "tür", "schlüssel")));
+        splitter.removeWords(Collections.singletonList("TÜR"));
+        assertThat(splitter.splitWord("Haustürschlüssel"), is(Collections.singletonList("Haustürschlüssel")));
+        assertThat(splitter.splitWord("Hausschlüssel"), is(Arrays.asList("Haus", "schlüssel")));
+        splitter.setWords(new HashSet<>(Arrays.asList("hau", "stür", "schlüssel")));
+        assertThat(splitter.splitWord("Haustürschlüssel"), is(Arrays.asList("Hau", "stür", "schlüssel")));
+    }
+
+    @Test
+    public void testAddAndRemoveException() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        splitter.setCacheSize(100);
+        List<String> split = splitter.splitWord("Sauerstoffflasche");
+        splitter.addException("Sauerstoffflasche", Collections.singletonList("Sauerstoffflasche"));
+        assertThat(splitter.splitWord("Sauerstoffflasche"), is(Collections.singletonList("Sauerstoffflasche")));
+        splitter.removeException("sauerstoffflasche");
+        assertThat(splitter.splitWord("Sauerstoffflasche"), is(split));
+    }
+
+    @Test
+    public void testUpdatesWhileSplitting() throws Exception {
+        GermanWordSplitter splitter = new GermanWordSplitter(false, new HashSet<>(Arrays.asList("haus", "tür")));
+        splitter.setCacheSize(10);
+        List<String> without = Collections.singletonList("Haustürschlüssel");
+        List<String> with = Arrays.asList("Haus", "tür", "schlüssel");
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20_000; i++) {
+                    List<String> parts = splitter.splitWord("Haustürschlüssel");
+                    if (!parts.equals(without) && !parts.equals(with)) {
+                        throw new AssertionError("Unexpected split: " + parts);
+                    }
+                }
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200; i++) {
+            splitter.addWords(Collections.singletonList("schlüssel"));
+            splitter.removeWords(Collections.singletonList("schlüssel"));
+        }
+        reader.join();
+        assertNull(error.get());
+        assertThat(splitter.splitWord("Haustürschlüssel"), is(without));
+    }
+
+    @Test
+    public void testWatchDictionary() throws Exception {
+        File file = File.createTempFile("jwordsplitter", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.asList("haus", "tür"), StandardCharsets.UTF_8);
+        GermanWordSplitter splitter = new GermanWordSplitter(false, new HashSet<>());
+        try (DictionaryWatcher watcher = splitter.watchDictionary(file)) {
+            assertThat(splitter.splitWord("Haustür"), is(Arrays.asList("Haus", "tür")));
+            Files.write(file.toPath(), Arrays.asList("haus", "tür", "schlüssel"), StandardCharsets.UTF_8);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (watcher.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertNull(watcher.getLastError());
+            assertThat(splitter.splitWord("Haustürschlüssel"), is(Arrays.asList("Haus", "tür", "schlüssel")));
+            // words added at runtime are replaced by the file:
+            splitter.addWords(Collections.singletonList("dienst"));
+            assertThat(splitter.splitWord("Hausdienst"), is(Arrays.asList("Haus", "dienst")));
+            Files.write(file.toPath(), Arrays.asList("haus", "tür"), StandardCharsets.UTF_8);
+            waitFor(() -> watcher.getReloadCount() > 1);
+            assertThat(splitter.splitWord("Hausdienst"), is(Collections.singletonList("Hausdienst")));
+        }
+    }
+
+    @Test
+    public void testRewriteCompiledDictionaryWhileSplitting() throws Exception {
+        File file = File.createTempFile("jwordsplitter", ".dict");
+        file.deleteOnExit();
+        byte[] small = toByteArray(CompiledDictionary.compile(Arrays.asList("haus", "tür")));
+        byte[] large = toByteArray(CompiledDictionary.compile(Arrays.asList("haus", "tür", "schlüssel")));
+        Files.write(file.toPath(), small);
+        GermanWordSplitter splitter = new GermanWordSplitter(false, new HashSet<>());
+        List<String> without = Collections.singletonList("Haustürschlüssel");
+        List<String> with = Arrays.asList("Haus", "tür", "schlüssel");
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    List<String> parts = splitter.splitWord("Haustürschlüssel");
+                    if (!parts.equals(without) && !parts.equals(with)) {
+                        throw new AssertionError("Unexpected split: " + parts);
+                    }
+                }
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        try (DictionaryWatcher watcher = splitter.watchDictionary(file)) {
+            reader.start();
+            // rewrite the file in place, first only partly, as an editor might:
+            Files.write(file.toPath(), Arrays.copyOf(large, large.length / 2));
+            waitFor(() -> watcher.getLastError() != null);
+            assertTrue(watcher.getLastError() instanceof IOException);
+            assertThat(splitter.splitWord("Haustürschlüssel"), is(without));
+            Files.write(file.toPath(), large);
+            waitFor(() -> watcher.getReloadCount() > 0);
+            assertNull(watcher.getLastError());
+            assertThat(splitter.splitWord("Haustürschlüssel"), is(with));
+            Files.write(file.toPath(), small);
+            waitFor(() -> watcher.getReloadCount() > 1);
+            assertThat(splitter.splitWord("Haustürschlüssel"), is(without));
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(error.get());
+    }
+
+    private static byte[] toByteArray(CompiledDictionary dict) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dict.write(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testWatcherKeepsWatchingAfterErrors() throws Exception {
+        File file = File.createTempFile("jwordsplitter", ".txt");
+        file.deleteOnExit();
+        AtomicInteger loads = new AtomicInteger();
+        try (DictionaryWatcher watcher = new DictionaryWatcher(file.toPath(), () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("corrupt file");
+            }
+        })) {
+            Files.write(file.toPath(), Collections.singletonList("haus"), StandardCharsets.UTF_8);
+            waitFor(() -> watcher.getLastError() != null);
+            assertTrue(watcher.getLastError() instanceof IllegalStateException);
+            Files.write(file.toPath(), Arrays.asList("haus", "tür"), StandardCharsets.UTF_8);
+            waitFor(() -> watcher.getReloadCount() > 0);
+            assertNull(watcher.getLastError());
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBuiltSplitterCannotBeUpdated() throws IOException {
+        GermanWordSplitter.builder().build().addWords(Collections.singletonList("foo"));
+    }
+}
@@ -17,8 +17,14 @@ package de.danielnaber.jwordsplitter;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
 public class EmbeddedGermanDictionaryTest {
@@ -29,4 +35,53 @@ public class EmbeddedGermanDictionaryTest {
     assertTrue("Got only " + words.size() + " words", words.size() > 50_000);
   }
 
+  @Test
+  public void testPreload() throws Exception {
+    CompletableFuture<Set<String>> future = EmbeddedGermanDictionary.preload();
+    Set<String> words = future.get();
+    assertTrue(EmbeddedGermanDictionary.isLoaded());
+    assertSame(words, EmbeddedGermanDictionary.getWords());
+    assertSame(future, EmbeddedGermanDictionary.preload(Runnable::run));
+  }
+
+  @Test(timeout = 10_000)
+  public void testPreloadWithRejectingExecutor() throws Exception {
+    Set<String> words = new HashSet<>(Arrays.asList("haus", "tür"));
+    EmbeddedGermanDictionary.Loader loader = new EmbeddedGermanDictionary.Loader(() -> words);
+    CompletableFuture<Set<String>> future = loader.preload(task -> { throw new RejectedExecutionException(); });
+    assertSame(words, future.get());
+    assertSame(words, loader.getWords());
+  }
+
+  @Test(timeout = 10_000)
+  public void testPreloadWithExecutorThatNeverRuns() throws Exception {
+    Set<String> words = new HashSet<>(Arrays.asList("haus", "tür"));
+    EmbeddedGermanDictionary.Loader loader = new EmbeddedGermanDictionary.Loader(() -> words);
+    CompletableFuture<Set<String>> future = loader.preload(task -> {});
+    assertFalse(future.isDone());
+    assertSame(words, loader.getWords());
+    assertSame(words, future.get());
+    assertTrue(loader.isLoaded());
+  }
+
+  @Test(timeout = 10_000)
+  public void testFailedLoadIsRetried() throws Exception {
+    Set<String> words = new HashSet<>(Arrays.asList("haus", "tür"));
+    AtomicInteger calls = new AtomicInteger();
+    EmbeddedGermanDictionary.Loader loader = new EmbeddedGermanDictionary.Loader(() -> {
+      if (calls.incrementAndGet() == 1) {
+        throw new IllegalStateException("transient failure");
+      }
+      return words;
+    });
+    try {
+      loader.getWords();
+      fail();
+    } catch (IllegalStateException expected) {}
+    assertFalse(loader.isLoaded());
+    assertSame(words, loader.preload(Runnable::run).get());
+    assertSame(words, loader.getWords());
+    assertThat(calls.get(), is(2));
+  }
+
 }
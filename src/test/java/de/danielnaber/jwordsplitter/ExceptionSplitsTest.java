@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.*;
+
+public class ExceptionSplitsTest {
+
+    @Test
+    public void testSuffixRule() throws IOException {
+        ExceptionSplits exceptions = new ExceptionSplits("/de/danielnaber/jwordsplitter/exceptionsGerman.txt");
+        // "Achs|ende/NS" in the file:
+        assertThat(exceptions.getExceptionSplitOrNull("Achsende"), is(Arrays.asList("Achs", "ende")));
+        assertThat(exceptions.getExceptionSplitOrNull("ACHSENDEN"), is(Arrays.asList("ACHS", "ENDEN")));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsendes"), is(Arrays.asList("Achs", "endes")));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsender"), is(nullValue()));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsendens"), is(nullValue()));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsend"), is(nullValue()));
+        // "Pilot|sendung" has no suffix rule:
+        assertThat(exceptions.getExceptionSplitOrNull("Pilotsendung"), is(Arrays.asList("Pilot", "sendung")));
+        assertThat(exceptions.getExceptionSplitOrNull("Pilotsendungs"), is(nullValue()));
+    }
+
+    @Test
+    public void testExplicitEntriesWinOverSuffixRule() throws IOException {
+        ExceptionSplits exceptions = new ExceptionSplits("/de/danielnaber/jwordsplitter/exceptionsGerman.txt");
+        exceptions.addSplit("Achsenden", Collections.singletonList("Achsenden"));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsenden"), is(Collections.singletonList("Achsenden")));
+        assertThat(exceptions.getExceptionSplitOrNull("Achsendes"), is(Arrays.asList("Achs", "endes")));
+        exceptions.addSplit("Achsendes", null);
+        assertThat(exceptions.getExceptionSplitOrNull("Achsendes"), is(nullValue()));
+    }
+
+    @Test
+    public void testSplitsThatDontMatchTheWord() {
+        ExceptionSplits exceptions = new ExceptionSplits();
+        List<String> parts = Arrays.asList("Ver", "halten", "Störung");
+        exceptions.addSplit("Verhaltensstörung", parts);
+        exceptions.addSplit("Nichts", Collections.<String>emptyList());
+        assertThat(exceptions.getExceptionSplitOrNull("verhaltensstörung"), is(parts));
+        assertThat(exceptions.getExceptionSplitOrNull("NICHTS"), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testManyEntries() {
+        ExceptionSplits exceptions = new ExceptionSplits();
+        for (int i = 0; i < 2000; i++) {
+            exceptions.addSplit("Wort" + i + "teil", Arrays.asList("Wort" + i, "teil"));
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertThat(exceptions.getExceptionSplitOrNull("WORT" + i + "TEIL"), is(Arrays.asList("WORT" + i, "TEIL")));
+            assertThat(exceptions.getExceptionSplitOrNull("Wort" + i + "teile"), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testFilesAreLoadedOnce() throws IOException {
+        String filename = "/de/danielnaber/jwordsplitter/exceptionsGerman.txt";
+        assertSame(ExceptionSplits.load(filename), ExceptionSplits.load(filename));
+        try {
+            ExceptionSplits.load("/de/danielnaber/jwordsplitter/no-such-file.txt");
+            fail();
+        } catch (IOException expected) {}
+    }
+
+    @Test
+    public void testSplittersDontShareAddedExceptions() throws IOException {
+        GermanWordSplitter splitter1 = new GermanWordSplitter(false);
+        GermanWordSplitter splitter2 = new GermanWordSplitter(false);
+        splitter1.addException("Pilotsendung", Collections.singletonList("Pilotsendung"));
+        assertThat(splitter1.splitWord("Pilotsendung"), is(Collections.singletonList("Pilotsendung")));
+        assertThat(splitter2.splitWord("Pilotsendung"), is(Arrays.asList("Pilot", "sendung")));
+        GermanWordSplitter built = GermanWordSplitter.builder().exception("Achsende", Collections.singletonList("Achsende")).build();
+        assertThat(built.splitWord("Achsende"), is(Collections.singletonList("Achsende")));
+        assertThat(built.splitWord("Achsenden"), is(Arrays.asList("Achs", "enden")));
+        assertThat(splitter2.splitWord("Achsende"), is(Arrays.asList("Achs", "ende")));
+        assertThat(new GermanWordSplitter(false).splitWord("Achsende"), is(Arrays.asList("Achs", "ende")));
+    }
+
+    @Test
+    public void testExceptionLookupOnRange() {
+        ExceptionSplits exceptions = new ExceptionSplits();
+        exceptions.addSplit("Pilotsendung", Arrays.asList("Pilot", "sendung"));
+        exceptions.addSplit("Nachtzug", Arrays.asList("Nacht", "zug"));
+        assertThat(exceptions.getExceptionSplitOrNull("xPILOTSENDUNGx", 1, 13), is(Arrays.asList("PILOT", "SENDUNG")));
+        assertThat(exceptions.getExceptionSplitOrNull("pilotsendung"), is(Arrays.asList("pilot", "sendung")));
+        assertThat(exceptions.getExceptionSplitOrNull("xPILOTSENDUNGx", 0, 13), is(nullValue()));
+        assertThat(exceptions.getExceptionSplitOrNull("Nachtzüge"), is(nullValue()));
+        for (int i = 0; i < 100; i++) {
+            exceptions.addSplit("wort" + i, Arrays.asList("wort", String.valueOf(i)));
+        }
+        assertThat(exceptions.getExceptionSplitOrNull("Wort42"), is(Arrays.asList("Wort", "42")));
+        assertThat(exceptions.getExceptionSplitOrNull("NachtZug"), is(Arrays.asList("Nacht", "Zug")));
+    }
+
+}
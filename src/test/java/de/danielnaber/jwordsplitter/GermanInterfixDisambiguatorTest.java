@@ -21,7 +21,6 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -42,7 +41,7 @@ public class GermanInterfixDisambiguatorTest {
 
     @Test
     public void testFullDict() {
-        HashSet<String> compoundParts = (HashSet<String>) EmbeddedGermanDictionary.getWords();
+        Set<String> compoundParts = EmbeddedGermanDictionary.getWords();
         GermanInterfixDisambiguator disambiguator = new GermanInterfixDisambiguator(compoundParts);
         assertSplit("Verkehr samt", "Verkehrs, amt", disambiguator);
         assertSplit("Sauerstoff flaschen störung s verhalten", "Sauerstoff, flaschen, störungs, verhalten", disambiguator);
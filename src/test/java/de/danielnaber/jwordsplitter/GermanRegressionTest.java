@@ -21,10 +21,9 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collection;
-import java.util.Scanner;
+import java.util.*;
 
-import static junit.framework.TestCase.fail;
+import static org.junit.Assert.*;
 
 public class GermanRegressionTest {
 
@@ -73,6 +72,33 @@ public class GermanRegressionTest {
         }
     }
 
+    @Test
+    public void testCompiledAndPlainDictionaryGiveSameResults() throws IOException {
+        Set<String> compiledWords = EmbeddedGermanDictionary.getWords();
+        assertTrue(compiledWords instanceof CompiledDictionary);
+        Set<String> plainWords = new HashSet<>(compiledWords);
+        List<String> inputs = new ArrayList<>();
+        try (InputStream is = BaseTest.class.getResourceAsStream(TEST_FILE);
+             Scanner scanner = new Scanner(is, "utf-8")) {
+            while (scanner.hasNextLine()) {
+                inputs.add(scanner.nextLine().replace(", ", ""));
+            }
+        }
+        for (boolean strictMode : new boolean[] {true, false}) {
+            for (boolean hideInterfixCharacters : new boolean[] {true, false}) {
+                AbstractWordSplitter compiledSplitter = new GermanWordSplitter(hideInterfixCharacters, compiledWords);
+                AbstractWordSplitter plainSplitter = new GermanWordSplitter(hideInterfixCharacters, plainWords);
+                compiledSplitter.setStrictMode(strictMode);
+                plainSplitter.setStrictMode(strictMode);
+                for (String input : inputs) {
+                    assertEquals(input, plainSplitter.splitWord(input), compiledSplitter.splitWord(input));
+                    assertEquals(input, plainSplitter.getSubWords(input), compiledSplitter.getSubWords(input));
+                    assertEquals(input, plainSplitter.getAllSplits(input), compiledSplitter.getAllSplits(input));
+                }
+            }
+        }
+    }
+
     private FileWriter getOutputWriterOrNull() throws IOException {
         if (WRITE_FILE) {
             tempFile = File.createTempFile(GermanRegressionTest.class.getName(), ".txt");
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class GermanWordSplitterBuilderTest {
+
+    private static final String TEST_FILE = "/de/danielnaber/jwordsplitter/test-de-large.txt";
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void testDefaults() throws IOException {
+        GermanWordSplitter built = GermanWordSplitter.builder().build();
+        GermanWordSplitter constructed = new GermanWordSplitter(false);
+        for (String input : Arrays.asList("Verhaltensstörung", "Bahnhofsuhr", "Pilotsendung", "Xyzqwvbrt", "Erhebungsfehler")) {
+            assertThat(built.splitWord(input), is(constructed.splitWord(input)));
+            assertThat(built.getSubWords(input), is(constructed.getSubWords(input)));
+        }
+    }
+
+    @Test
+    public void testOptions() throws IOException {
+        Set<String> words = new HashSet<>(Arrays.asList("verhalten", "störung", "haus", "tür", "xyz"));
+        GermanWordSplitter.Builder builder = GermanWordSplitter.builder().dictionary(words);
+        assertThat(builder.build().splitWord("Verhaltensstörung"), is(Arrays.asList("Verhaltens", "störung")));
+        assertThat(builder.hideInterfixCharacters(true).build().splitWord("Verhaltensstörung"), is(Arrays.asList("Verhalten", "störung")));
+        assertThat(builder.build().splitWord("Haustürxy"), is(Collections.singletonList("Haustürxy")));
+        assertThat(builder.strictMode(false).build().splitWord("Haustürxy"), is(Arrays.asList("Haus", "türxy")));
+        assertThat(builder.minimumWordLength(4).build().splitWord("Haustür"), is(Collections.singletonList("Haustür")));
+        builder.minimumWordLength(3).exception("Haustür", Arrays.asList("Haus", "tür", "!"));
+        assertThat(builder.build().splitWord("Haustür"), is(Arrays.asList("Haus", "tür", "!")));
+        assertThat(builder.exception("Haustür", null).build().splitWord("Haustür"), is(Arrays.asList("Haus", "tür")));
+        try {
+            builder.maximumWordLength(5).build().splitWord("Haustür");
+            fail();
+        } catch (InputTooLongException expected) {}
+    }
+
+    @Test
+    public void testExceptionFile() throws IOException {
+        // "Pilot|sendung" is in the embedded exception file:
+        assertThat(GermanWordSplitter.builder().build().splitWord("Pilotsendung"), is(Arrays.asList("Pilot", "sendung")));
+        Set<String> words = new HashSet<>(Arrays.asList("pilots", "endung"));
+        assertThat(GermanWordSplitter.builder().dictionary(words).build().splitWord("Pilotsendung"), is(Arrays.asList("Pilot", "sendung")));
+        assertThat(GermanWordSplitter.builder().dictionary(words).exceptionFile(null).build().splitWord("Pilotsendung"),
+                is(Arrays.asList("Pilots", "endung")));
+    }
+
+    @Test
+    public void testDictionaryFile() throws IOException {
+        File file = File.createTempFile(GermanWordSplitterBuilderTest.class.getSimpleName(), ".txt");
+        try {
+            Files.write(file.toPath(), Arrays.asList("Haus", "tür"), StandardCharsets.UTF_8);
+            GermanWordSplitter splitter = GermanWordSplitter.builder().dictionary(file).build();
+            assertThat(splitter.splitWord("Haustür"), is(Arrays.asList("Haus", "tür")));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testCannotBeModified() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().build();
+        List<Callable<?>> setters = Arrays.asList(
+                () -> { splitter.setStrictMode(false); return null; },
+                () -> { splitter.setMinimumWordLength(4); return null; },
+                () -> { splitter.setMaximumWordLength(100); return null; },
+                () -> { splitter.setExceptionFile("/de/danielnaber/jwordsplitter/exceptionsGerman.txt"); return null; },
+                () -> { splitter.addException("Haustür", Arrays.asList("Haus", "tür")); return null; });
+        for (Callable<?> setter : setters) {
+            try {
+                setter.call();
+                fail();
+            } catch (UnsupportedOperationException expected) {
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentUseGivesSameResultsAsSingleThreaded() throws Exception {
+        List<String> inputs = loadInputs();
+        for (boolean strictMode : new boolean[] {true, false}) {
+            GermanWordSplitter splitter = GermanWordSplitter.builder().strictMode(strictMode).hideInterfixCharacters(!strictMode)
+                    .cacheSize(strictMode ? 0 : 500).build();
+            Map<String, List<String>> expectedSplits = new HashMap<>();
+            Map<String, List<String>> expectedSubWords = new HashMap<>();
+            for (String input : inputs) {
+                expectedSplits.put(input, splitter.splitWord(input));
+                expectedSubWords.put(input, splitter.getSubWords(input));
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    List<String> shuffled = new ArrayList<>(inputs);
+                    Collections.shuffle(shuffled, new Random(i));
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        int checked = 0;
+                        for (int round = 0; round < ROUNDS; round++) {
+                            for (String input : shuffled) {
+                                assertEquals(input, expectedSplits.get(input), splitter.splitWord(input));
+                                assertEquals(input, expectedSubWords.get(input), splitter.getSubWords(input));
+                                checked++;
+                            }
+                        }
+                        return checked;
+                    }));
+                }
+                start.countDown();
+                for (Future<Integer> future : futures) {
+                    assertThat(future.get(), is(inputs.size() * ROUNDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testNonStrictFallbackGivesSameResultsAsTwoSplitters() throws IOException {
+        List<String> inputs = new ArrayList<>();
+        for (String input : loadInputs()) {
+            inputs.add(input);
+            inputs.add(input + "xyz");
+            inputs.add("Qwb" + input.toLowerCase());
+        }
+        Set<String> hashDictionary = HashDictionary.of(EmbeddedGermanDictionary.getWords());
+        for (Set<String> words : Arrays.asList(EmbeddedGermanDictionary.getWords(), hashDictionary)) {
+            for (boolean hideInterfixCharacters : new boolean[] {true, false}) {
+                GermanWordSplitter.Builder builder = GermanWordSplitter.builder().dictionary(words)
+                        .hideInterfixCharacters(hideInterfixCharacters);
+                GermanWordSplitter strict = builder.build();
+                GermanWordSplitter nonStrict = builder.strictMode(false).build();
+                GermanWordSplitter fallback = builder.strictMode(true).nonStrictFallback(true).build();
+                for (String input : inputs) {
+                    List<String> expected = strict.splitWord(input);
+                    if (expected.size() == 1) {
+                        expected = nonStrict.splitWord(input);
+                    }
+                    assertEquals(input, expected, fallback.splitWord(input));
+                    List<String> expectedSubWords = strict.getSubWords(input);
+                    if (expectedSubWords.size() == 1) {
+                        expectedSubWords = nonStrict.getSubWords(input);
+                    }
+                    assertEquals(input, expectedSubWords, fallback.getSubWords(input));
+                }
+            }
+        }
+    }
+
+    private List<String> loadInputs() throws IOException {
+        List<String> inputs = new ArrayList<>();
+        try (InputStream is = BaseTest.class.getResourceAsStream(TEST_FILE);
+             Scanner scanner = new Scanner(is, "utf-8")) {
+            while (scanner.hasNextLine()) {
+                inputs.add(scanner.nextLine().replace(", ", ""));
+            }
+        }
+        return inputs;
+    }
+
+}
@@ -20,7 +20,11 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -70,6 +74,27 @@ public class GermanWordSplitterTest extends BaseTest {
         testAllSplits("Genau", "[[Gen, au]]");
     }
 
+    public void testIterateAllSplits() throws IOException {
+        splitter = new GermanWordSplitter(true, tmpLexiconFile);
+        Iterator<List<String>> splits = splitter.iterateAllSplits("Hausverhaltensflügex");
+        assertThat(splits.next().toString(), is("[Haus, verhaltensflügex]"));
+        assertThat(splits.next().toString(), is("[Haus, verhalten, sflügex]"));
+        assertThat(splits.next().toString(), is("[Haus, verhaltens, flügex]"));
+        assertFalse(splits.hasNext());
+        assertThat(splitter.streamAllSplits("Hausverhaltensflügex").count(), is(3L));
+        assertThat(splitter.streamAllSplits("xyz").count(), is(0L));
+    }
+
+    public void testIterateAllSplitsStopsEarly() throws IOException {
+        // there are far too many splits to compute all of them:
+        splitter = new GermanWordSplitter(true, new HashSet<>(Arrays.asList("aaa", "aaaa", "aaaaa")));
+        String word = repeat("a", 200);
+        List<List<String>> splits = splitter.streamAllSplits(word).limit(3).collect(Collectors.toList());
+        assertThat(splits.size(), is(3));
+        assertThat(splits.get(0), is(Arrays.asList("aaa", repeat("a", 197))));
+        assertThat(splits.get(1).subList(0, 2), is(Arrays.asList("aaa", "aaa")));
+    }
+
     private void testAllSplits(String input, String expected) {
         List<List<String>> result = splitter.getAllSplits(input);
         assertThat(result.toString(), is(expected));
@@ -280,8 +305,12 @@ public class GermanWordSplitterTest extends BaseTest {
 
     public void testLongWords() throws IOException {
         GermanWordSplitter splitter = new GermanWordSplitter(true);
-        splitter.splitWord("Bahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhr"); // 67 chars
-        String tooLongByDefault = "Bahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhrbahnhofsuhr";  // 77 chars
+        String longWord = repeat("Bahnhofsuhr", 7);  // 77 chars, used to be too long before 4.8
+        assertThat(splitter.splitWord(longWord).size(), is(14));
+        String veryLongWord = repeat("Bahnhofsuhr", 27);  // 297 chars
+        assertThat(splitter.splitWord(veryLongWord).size(), is(54));
+        assertThat(splitter.getSubWords(veryLongWord).toString(), is("[Bahnhof, uhr, Bahn, hofs, Bahnhofs]"));
+        String tooLongByDefault = repeat("Bahnhofsuhr", 28);  // 308 chars
         try {
             splitter.splitWord(tooLongByDefault);
             fail("got no exception");
@@ -294,9 +323,47 @@ public class GermanWordSplitterTest extends BaseTest {
             splitter.getAllSplits(tooLongByDefault);
             fail("got no exception");
         } catch (InputTooLongException ignore) {}
-        splitter.setMaximumWordLength(100);
+        splitter.setMaximumWordLength(400);
         List<String> result = splitter.splitWord(tooLongByDefault);
-        assertThat(result.size(), is(14));
+        assertThat(result.size(), is(56));
+        splitter.setMaximumWordLength(70);
+        try {
+            splitter.splitWord(longWord);
+            fail("got no exception");
+        } catch (InputTooLongException ignore) {}
+    }
+
+    public void testLongWordWithManyPossibleSplits() throws IOException {
+        // many overlapping dictionary words - this used to take exponential time:
+        splitter = new GermanWordSplitter(true, new HashSet<>(Arrays.asList("aaa", "aaaa", "aaaaa", "b")));
+        splitter.setStrictMode(false);
+        String word = repeat("a", 290) + "b";
+        assertThat(splitter.splitWord(word).size(), is(2));
+        splitter.setStrictMode(true);
+        assertThat(splitter.splitWord(word).size(), is(1));
+        assertThat(splitter.splitWord(repeat("a", 299)).size(), is(60));
+    }
+
+    public void testLookupDoesNotDependOnDefaultLocale() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            // in Turkish, "I".toLowerCase() is a dotless "ı"
+            Locale.setDefault(new Locale("tr"));
+            splitter = new GermanWordSplitter(false, new HashSet<>(Arrays.asList("insel", "bahn")));
+            assertThat(splitter.splitWord("INSELBAHN"), is(Arrays.asList("INSEL", "BAHN")));
+            splitter.addException("Inselbahnhof", Arrays.asList("Insel", "bahnhof"));
+            assertThat(splitter.splitWord("INSELBAHNHOF"), is(Arrays.asList("INSEL", "BAHNHOF")));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class HashDictionaryTest {
+
+    @Test
+    public void testLookup() {
+        HashDictionary dict = HashDictionary.of(Arrays.asList("haus", "Tür", "", "haus"));
+        assertThat(dict.size(), is(2));
+        assertThat(new ArrayList<>(dict), is(Arrays.asList("haus", "tür")));
+        assertTrue(dict.isWord("Haustür", 0, 4));
+        assertTrue(dict.isWord("Haustür", 4, 7));
+        assertTrue(dict.isWord("HAUSTÜR", 4, 7));
+        assertFalse(dict.isWord("Haustür", 0, 7));
+        assertFalse(dict.isWord("Haustür", 3, 3));
+        assertTrue(dict.contains("tür"));
+        assertFalse(dict.contains("Tür"));
+        assertFalse(dict.contains(null));
+    }
+
+    @Test
+    public void testGrowth() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            words.add("wort" + i);
+        }
+        HashDictionary dict = HashDictionary.of(words);
+        assertThat(dict.size(), is(words.size()));
+        assertThat(new ArrayList<>(dict), is(words));
+        for (int i = 0; i < words.size(); i++) {
+            assertThat(dict.addWord("WORT" + i), is(i));
+        }
+        assertFalse(dict.isWord("wort10000", 0, 9));
+    }
+
+    @Test
+    public void testCopy() {
+        HashDictionary dict = HashDictionary.of(Collections.singletonList("haus"));
+        HashDictionary copy = dict.copy();
+        assertThat(copy.addWord("tür"), is(1));
+        assertThat(dict.size(), is(1));
+        assertFalse(dict.isWord("tür", 0, 3));
+        assertTrue(copy.isWord("tür", 0, 3));
+        assertTrue(copy.isWord("haus", 0, 4));
+    }
+
+    @Test
+    public void testSameSplitsAsHashSet() throws IOException {
+        Set<String> words = new HashSet<>(EmbeddedGermanDictionary.getWords());
+        AbstractWordSplitter setSplitter = new GermanWordSplitter(false, words);
+        AbstractWordSplitter dictSplitter = new GermanWordSplitter(false, HashDictionary.of(words));
+        for (String word : Arrays.asList("Verhaltensstörung", "Sauerstoffflaschenstörung", "Urlaubsorte", "Haustür")) {
+            assertThat(dictSplitter.splitWord(word), is(setSplitter.splitWord(word)));
+            assertThat(dictSplitter.getAllSplits(word), is(setSplitter.getAllSplits(word)));
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class LayeredDictionaryTest {
+
+    @Test
+    public void testLayers() {
+        Set<String> base = HashDictionary.of(Arrays.asList("haus", "tür", "schlüssel"));
+        LayeredDictionary dict = LayeredDictionary.on(base).withAdded(Arrays.asList("Bund", "haus")).withRemoved(Collections.singletonList("TÜR"));
+        assertThat(dict.size(), is(3));
+        assertThat(new ArrayList<>(dict), is(Arrays.asList("haus", "schlüssel", "bund")));
+        assertTrue(dict.contains("bund"));
+        assertFalse(dict.contains("tür"));
+        assertTrue(dict.isWord("Bundhaus", 0, 4));
+        assertTrue(dict.isWord("Bundhaus", 4, 8));
+        assertFalse(dict.isWord("Haustür", 4, 7));
+        LayeredDictionary restored = dict.withAdded(Collections.singletonList("tür")).withRemoved(Collections.singletonList("bund"));
+        assertThat(restored, is(base));
+        assertThat(base.size(), is(3));
+    }
+
+    @Test
+    public void testSameSplitsAsMergedDictionary() throws IOException {
+        Set<String> base = EmbeddedGermanDictionary.getWords();
+        List<String> added = Arrays.asList("flaschenstörung", "sorte", "xyzwort");
+        List<String> removed = Arrays.asList("störung", "urlaub", "nichtda");
+        Set<String> merged = new HashSet<>(base);
+        merged.addAll(added);
+        merged.removeAll(removed);
+        LayeredDictionary layered = LayeredDictionary.on(base).withAdded(added).withRemoved(removed);
+        assertThat(layered.size(), is(merged.size()));
+        AbstractWordSplitter mergedSplitter = new GermanWordSplitter(false, merged);
+        AbstractWordSplitter layeredSplitter = new GermanWordSplitter(false, layered);
+        for (String word : Arrays.asList("Verhaltensstörung", "Sauerstoffflaschenstörung", "Urlaubsorte", "Haustür", "Xyzworthaus")) {
+            assertThat(layeredSplitter.splitWord(word), is(mergedSplitter.splitWord(word)));
+            assertThat(layeredSplitter.getAllSplits(word), is(mergedSplitter.getAllSplits(word)));
+        }
+    }
+
+    @Test
+    public void testDisambiguatorUsesOwnDictionary() throws IOException {
+        File file = File.createTempFile("jwordsplitter", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.asList("urlaub", "orte"), StandardCharsets.UTF_8);
+        GermanWordSplitter splitter = new GermanWordSplitter(false, file);
+        assertTrue(splitter.getDisambiguator().uses(splitter.words));
+        assertFalse(splitter.getDisambiguator().uses(EmbeddedGermanDictionary.getWords()));
+        splitter.addWords(Collections.singletonList("sorte"));
+        assertTrue(splitter.getDisambiguator().uses(splitter.words));
+        assertThat(splitter.getDisambiguator().disambiguate(Arrays.asList("Urlaub", "s", "orte")), is(Arrays.asList("Urlaub", "s", "orte")));
+    }
+
+}
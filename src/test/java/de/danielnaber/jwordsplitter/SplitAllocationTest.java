@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class SplitAllocationTest {
+
+    private static final int CALLS = 20_000;
+
+    @Test
+    public void testNoAllocationsForWordsThatAreNotSplit() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        // a dictionary word, a word with an interfix and a word that isn't in the dictionary:
+        for (String word : Arrays.asList("Bahnhof", "Bahnhofs", "Xyzqwvbrt")) {
+            assertThat(splitter.splitWord(word), is(Collections.singletonList(word)));
+            long bytesPerCall = allocatedBytesPerCall(() -> splitter.splitWord(word));
+            // only the singleton list of the result may be allocated
+            assertTrue(word + ": " + bytesPerCall + " bytes per call", bytesPerCall <= 32);
+        }
+    }
+
+    @Test
+    public void testNoAllocationsWithSplitResult() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        SplitResult result = new SplitResult();
+        for (String word : Arrays.asList("Bahnhof", "Verhaltensstörung", "Sauerstoffflaschenverhaltensstörung")) {
+            long bytesPerCall = allocatedBytesPerCall(() -> splitter.splitWord(word, result));
+            assertThat(word + ": " + bytesPerCall + " bytes per call", bytesPerCall, is(0L));
+        }
+    }
+
+    @Test
+    public void testNoAllocationsWithCharBuffer() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        int[] partOffsets = new int[16];
+        for (String word : Arrays.asList("Bahnhof", "Verhaltensstörung", "Sauerstoffflaschenverhaltensstörung")) {
+            char[] buffer = word.toCharArray();
+            long bytesPerCall = allocatedBytesPerCall(() -> splitter.splitWord(buffer, 0, buffer.length, partOffsets));
+            assertThat(word + ": " + bytesPerCall + " bytes per call", bytesPerCall, is(0L));
+        }
+    }
+
+    private long allocatedBytesPerCall(Runnable runnable) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+        for (int i = 0; i < CALLS; i++) {
+            runnable.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            runnable.run();
+        }
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+        return (after - before) / CALLS;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SplitBudgetTest {
+
+    private static final String WORD = "Sauerstoffflaschenverhaltensstörung";
+
+    @Test
+    public void testUnlimited() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        assertThat(splitter.splitWord(WORD, SplitBudget.UNLIMITED), is(splitter.splitWord(WORD)));
+        assertThat(splitter.getSubWords(WORD, SplitBudget.ofProbes(100_000)), is(splitter.getSubWords(WORD)));
+        assertThat(splitter.getAllSplits(WORD, SplitBudget.ofTimeout(1, TimeUnit.HOURS)), is(splitter.getAllSplits(WORD)));
+    }
+
+    @Test
+    public void testProbeBudget() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        assertThat(splitter.splitWord(WORD, SplitBudget.ofProbes(0)), is(Collections.singletonList(WORD)));
+        for (int probes = 0; probes < 100; probes++) {
+            List<String> parts = splitter.splitWord(WORD, SplitBudget.ofProbes(probes));
+            assertThat(String.join("", parts), is(WORD));
+        }
+        assertTrue(splitter.getAllSplits(WORD, SplitBudget.ofProbes(0)).isEmpty());
+        List<List<String>> allSplits = splitter.getAllSplits(WORD);
+        List<List<String>> someSplits = splitter.getAllSplits(WORD, SplitBudget.ofProbes(3));
+        assertTrue(someSplits.size() < allSplits.size());
+        assertTrue(allSplits.containsAll(someSplits));
+    }
+
+    @Test
+    public void testTimeout() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        SplitBudget budget = SplitBudget.ofTimeout(0, TimeUnit.NANOSECONDS);
+        assertThat(splitter.splitWord(WORD, budget), is(Collections.singletonList(WORD)));
+        assertTrue(splitter.getAllSplits(WORD, budget).isEmpty());
+    }
+
+    @Test
+    public void testVeryLongTimeout() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        for (SplitBudget budget : Arrays.asList(SplitBudget.ofTimeout(Long.MAX_VALUE - 1, TimeUnit.NANOSECONDS),
+                SplitBudget.ofTimeout(Long.MAX_VALUE / 2 + 1, TimeUnit.NANOSECONDS),
+                SplitBudget.ofTimeout(Duration.ofDays(200 * 365).toNanos(), TimeUnit.NANOSECONDS),
+                SplitBudget.ofTimeout(Long.MAX_VALUE, TimeUnit.DAYS))) {
+            assertThat(splitter.splitWord(WORD, budget), is(splitter.splitWord(WORD)));
+        }
+        assertThat(SplitBudget.ofTimeout(Long.MAX_VALUE, TimeUnit.DAYS).getTimeoutNanos(), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testInterrupt() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(splitter.splitWord(WORD, SplitBudget.UNLIMITED), is(Collections.singletonList(WORD)));
+            assertTrue(splitter.getAllSplits(WORD, SplitBudget.UNLIMITED).isEmpty());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testIncompleteResultsAreNotCached() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        splitter.setCacheSize(10);
+        assertThat(splitter.splitWord("Verhaltensstörung", SplitBudget.ofProbes(0)), is(Collections.singletonList("Verhaltensstörung")));
+        assertThat(splitter.splitWord("Verhaltensstörung"), is(Arrays.asList("Verhaltens", "störung")));
+        assertThat(splitter.splitWord("Verhaltensstörung", SplitBudget.ofProbes(0)), is(Arrays.asList("Verhaltens", "störung")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeProbes() {
+        SplitBudget.ofProbes(-1);
+    }
+
+}
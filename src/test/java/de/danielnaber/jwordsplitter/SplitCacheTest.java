@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.*;
+
+public class SplitCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        SplitCache cache = new SplitCache(1);
+        cache.put("a", false, Collections.singletonList("a"));
+        cache.put("a", true, Arrays.asList("a", "b"));
+        assertThat(cache.get("a", false), is(Collections.singletonList("a")));
+        assertThat(cache.get("a", true), is(Arrays.asList("a", "b")));
+        cache.put("b", false, Collections.singletonList("b"));
+        assertThat(cache.get("a", false), is(nullValue()));
+        assertThat(cache.get("b", false), is(Collections.singletonList("b")));
+        assertThat(cache.get("b", true), is(nullValue()));
+        CacheStats stats = cache.getStats();
+        assertThat(stats.getHitCount(), is(3L));
+        assertThat(stats.getMissCount(), is(2L));
+        assertThat(stats.getEvictionCount(), is(1L));
+        assertThat(stats.getSize(), is(1));
+        assertThat(stats.getMaximumSize(), is(1));
+        cache.clear();
+        assertThat(cache.getStats().getSize(), is(0));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        SplitCache cache = new SplitCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("word" + i, false, Collections.singletonList("word" + i));
+        }
+        CacheStats stats = cache.getStats();
+        // each stripe has its own part of the capacity, so the cache may evict before it's completely full:
+        assertTrue(stats.getSize() <= 100);
+        assertThat(stats.getSize() + stats.getEvictionCount(), is(1000L));
+        // the most recently used words are still there:
+        assertThat(cache.get("word999", false), is(Collections.singletonList("word999")));
+    }
+
+    @Test
+    public void testSplitterWithCache() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        GermanWordSplitter uncached = new GermanWordSplitter(false);
+        assertThat(splitter.getCacheStats().getMaximumSize(), is(0));
+        splitter.setCacheSize(1000);
+        for (int i = 0; i < 3; i++) {
+            for (String word : Arrays.asList("Verhaltensstörung", " Bahnhofsuhr ", "Xyzqwvbrt", "Pilotsendung")) {
+                assertThat(splitter.splitWord(word), is(uncached.splitWord(word)));
+                assertThat(splitter.getSubWords(word), is(uncached.getSubWords(word)));
+            }
+        }
+        CacheStats stats = splitter.getCacheStats();
+        assertThat(stats.getMissCount(), is(8L));
+        assertThat(stats.getHitCount(), is(16L));
+        assertThat(stats.getSize(), is(4));
+        try {
+            splitter.splitWord("Verhaltensstörung").add("x");
+            fail();
+        } catch (UnsupportedOperationException expected) {}
+        assertThat(splitter.splitWord("Verhaltensstörung"), is(Arrays.asList("Verhaltens", "störung")));
+
+        // changing the configuration clears the cache:
+        splitter.addException("Verhaltensstörung", Arrays.asList("Ver", "haltensstörung"));
+        assertThat(splitter.getCacheStats().getSize(), is(0));
+        assertThat(splitter.splitWord("Verhaltensstörung"), is(Arrays.asList("Ver", "haltensstörung")));
+        splitter.setStrictMode(false);
+        assertThat(splitter.getCacheStats().getSize(), is(0));
+    }
+
+    @Test
+    public void testBuilder() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().cacheSize(10).build();
+        for (int i = 0; i < 20; i++) {
+            splitter.splitWord("Wort" + i);
+        }
+        CacheStats stats = splitter.getCacheStats();
+        assertTrue(stats.getSize() <= 10);
+        assertThat(stats.getSize() + stats.getEvictionCount(), is(20L));
+        assertThat(stats.getMissCount(), is(20L));
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SplitEventTest {
+
+    private static final String EVENT_NAME = "de.danielnaber.jwordsplitter.Split";
+
+    @Test
+    public void testEvents() throws Exception {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        Path file = Files.createTempFile("jwordsplitter-junit", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EVENT_NAME).withThreshold(Duration.ZERO);
+                recording.start();
+                splitter.splitWord("Verhaltensstörung");
+                splitter.getAllSplits("Verhaltensstörung");
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                    .collect(Collectors.toList());
+            assertThat(events.size(), is(2));
+            RecordedEvent event = events.get(0);
+            assertThat(event.getString("method"), is("splitWord"));
+            assertThat(event.getString("word"), is("Verhaltensstörung"));
+            assertThat(event.getInt("wordLength"), is(17));
+            assertThat(event.getInt("parts"), is(2));
+            assertTrue(event.getInt("probes") > 0);
+            assertTrue(event.getBoolean("strictMode"));
+            assertThat(events.get(1).getString("method"), is("getAllSplits"));
+            assertTrue(events.get(1).getInt("probes") > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testThreshold() throws Exception {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        Path file = Files.createTempFile("jwordsplitter-junit", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EVENT_NAME).withThreshold(Duration.ofHours(1));
+                recording.start();
+                splitter.splitWord("Verhaltensstörung");
+                recording.stop();
+                recording.dump(file);
+            }
+            assertFalse(RecordingFile.readAllEvents(file).stream()
+                    .anyMatch(event -> event.getEventType().getName().equals(EVENT_NAME)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
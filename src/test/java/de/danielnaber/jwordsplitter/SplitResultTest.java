@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SplitResultTest {
+
+    private static final String TEST_FILE = "/de/danielnaber/jwordsplitter/test-de-large.txt";
+
+    @Test
+    public void testOffsets() throws IOException {
+        SplitResult result = new SplitResult();
+        new GermanWordSplitter(true).splitWord("Arbeitsverhältnisse", result);
+        assertThat(result.size(), is(2));
+        assertThat(result.getStart(0), is(0));
+        assertThat(result.getEnd(0), is(6));
+        assertThat(result.getStart(1), is(7));   // the hidden interfix is between the parts
+        assertThat(result.getEnd(1), is(19));
+        assertThat(result.toList(), is(Arrays.asList("Arbeit", "verhältnisse")));
+        new GermanWordSplitter(false).splitWord("Arbeitsverhältnisse", result);
+        assertThat(result.getEnd(0), is(7));
+        assertThat(result.getPart(0), is("Arbeits"));
+        assertFalse(result.isInterfix(0));
+    }
+
+    @Test
+    public void testInterfix() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false, new HashSet<>(Arrays.asList("urlaub", "orte", "sorte")));
+        SplitResult result = splitter.splitWord("Urlaubsorte", new SplitResult());
+        assertThat(result.toList(), is(splitter.splitWord("Urlaubsorte")));
+        for (int i = 0; i < result.size(); i++) {
+            assertThat(result.isInterfix(i), is(result.getPart(i).equals("s")));
+        }
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        SplitResult result = new SplitResult();
+        assertSame(result, splitter.splitWord(" Haustür ", result));
+        assertThat(result.getInput(), is(" Haustür "));
+        assertThat(result.getStart(0), is(1));
+        assertThat(result.getEnd(1), is(8));
+        assertThat(result.toList(), is(Arrays.asList("Haus", "tür")));
+        splitter.splitWord("Xyzqwvbrt", result);
+        assertThat(result.toList(), is(Collections.singletonList("Xyzqwvbrt")));
+        assertSame(result.getInput(), result.getPart(0));
+        splitter.splitWord(null, result);
+        assertThat(result.size(), is(0));
+    }
+
+    @Test
+    public void testSameAsSplitWord() throws IOException {
+        List<String> inputs = new ArrayList<>();
+        try (InputStream is = BaseTest.class.getResourceAsStream(TEST_FILE);
+             Scanner scanner = new Scanner(is, "utf-8")) {
+            while (scanner.hasNextLine()) {
+                String input = scanner.nextLine().replace(", ", "");
+                inputs.add(input);
+                inputs.add(input.toUpperCase(Locale.ROOT));
+            }
+        }
+        SplitResult result = new SplitResult();
+        for (boolean hideInterfixCharacters : new boolean[] {true, false}) {
+            GermanWordSplitter splitter = new GermanWordSplitter(hideInterfixCharacters);
+            for (String input : inputs) {
+                List<String> parts = splitter.splitWord(input);
+                assertThat(input, splitter.splitWord(input, result).toList(), is(parts));
+                for (int i = 0; i < result.size(); i++) {
+                    if (result.isRange(i)) {
+                        assertThat(input.substring(result.getStart(i), result.getEnd(i)), is(parts.get(i)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCharBuffer() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        char[] buffer = "xxHaustürxx".toCharArray();
+        int[] partOffsets = new int[8];
+        assertThat(splitter.splitWord(buffer, 2, 7, partOffsets), is(2));
+        assertThat(Arrays.copyOf(partOffsets, 4), is(new int[] {2, 6, 6, 9}));
+        int[] tooShort = new int[2];
+        assertThat(splitter.splitWord(buffer, 2, 7, tooShort), is(2));
+        assertThat(tooShort, is(new int[] {2, 6}));
+        assertThat(splitter.splitWord(buffer, 0, 2, partOffsets), is(1));
+        assertThat(Arrays.copyOf(partOffsets, 2), is(new int[] {0, 2}));
+    }
+
+    @Test
+    public void testCharBufferSameAsSplitResult() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(true);
+        SplitResult result = new SplitResult();
+        char[] buffer = new char[400];
+        int[] partOffsets = new int[400];
+        for (String input : Arrays.asList("Arbeitsverhältnisse", " Verhaltensstörung ", "Sauerstoffflaschenverhaltensstörung", "", "Bahnhof")) {
+            input.getChars(0, input.length(), buffer, 3);
+            int partCount = splitter.splitWord(buffer, 3, input.length(), partOffsets);
+            splitter.splitWord(input, result);
+            assertThat(partCount, is(result.size()));
+            for (int i = 0; i < partCount; i++) {
+                assertThat(partOffsets[2 * i], is(result.getStart(i) + 3));
+                assertThat(partOffsets[2 * i + 1], is(result.getEnd(i) + 3));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharBufferRange() throws IOException {
+        new GermanWordSplitter(false).splitWord(new char[10], 5, 6, new int[4]);
+    }
+
+}
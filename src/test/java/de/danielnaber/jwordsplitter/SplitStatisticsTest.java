@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SplitStatisticsTest {
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        splitter.splitWord("Verhaltensstörung");
+        assertThat(splitter.getStatistics().getCallCount(), is(0L));
+        assertThat(splitter.getStatistics().getProbeCount(), is(0L));
+    }
+
+    @Test
+    public void testCounters() throws Exception {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        splitter.setStatisticsEnabled(true);
+        splitter.addException("Sauerstoffflasche", Arrays.asList("Sauerstoff", "flasche"));
+        splitter.splitWord("Verhaltensstörung");
+        splitter.splitWord("Sauerstoffflasche");
+        splitter.splitWord("Sauerstoffflaschenstörung");
+        try {
+            splitter.splitWord(String.join("", Collections.nCopies(301, "x")));
+            fail();
+        } catch (InputTooLongException expected) {
+        }
+        splitter.setStrictMode(false);
+        splitter.splitWord("Verhaltensxyzabc");
+        SplitStatistics stats = splitter.getStatistics();
+        assertThat(stats.getCallCount(), is(4L));
+        assertThat(stats.getStrictCallCount(), is(3L));
+        assertThat(stats.getNonStrictCallCount(), is(1L));
+        assertThat(stats.getInputTooLongCount(), is(1L));
+        assertTrue(stats.getProbeCount() > 0);
+        assertThat(stats.getExceptionHitCount(), is(1L));
+        assertTrue(stats.getMaxRecursionDepth() >= 2);
+        assertTrue(stats.getNonStrictFallbackCount() > 0);
+        assertTrue(stats.getTotalNanos() > 0);
+        long[] histogram = stats.getLatencyHistogram("Sauerstoffflaschenstörung".length());
+        assertThat(Arrays.stream(histogram).sum(), is(1L));
+        assertThat(stats.getLatencyHistogram().length, is(SplitStatistics.MAX_TRACKED_WORD_LENGTH + 1));
+        splitter.setStatisticsEnabled(false);
+        assertThat(splitter.getStatistics().getCallCount(), is(0L));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().statisticsEnabled(true).build();
+        splitter.splitWord("Verhaltensstörung");
+        ObjectName name = splitter.registerStatisticsMBean("junit");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThat(server.getAttribute(name, "StatisticsEnabled"), is(true));
+            CompositeData stats = (CompositeData) server.getAttribute(name, "Statistics");
+            assertThat(stats.get("callCount"), is(1L));
+            server.invoke(name, "resetStatistics", null, null);
+            assertThat(splitter.getStatistics().getCallCount(), is(0L));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+
+public class SplitTextTest {
+
+    @Test
+    public void testOffsetsInText() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().build();
+        String text = "Die Verhaltensstörung (siehe oben) war, laut Bahnhofsuhr, \"Verhaltensstörung\".";
+        List<SplitToken> tokens = splitter.splitText(text);
+        assertThat(tokens.size(), is(3));
+        for (SplitToken token : tokens) {
+            String word = text.substring(token.getStart(), token.getEnd());
+            assertThat(token.getParts(), is(splitter.splitWord(word)));
+        }
+        assertThat(text.substring(tokens.get(0).getStart(), tokens.get(0).getEnd()), is("Verhaltensstörung"));
+        assertThat(text.substring(tokens.get(1).getStart(), tokens.get(1).getEnd()), is("Bahnhofsuhr"));
+        assertThat(tokens.get(1).getParts(), is(Arrays.asList("Bahnhofs", "uhr")));
+        // repeated words are split only once:
+        assertThat(tokens.get(2).getParts(), sameInstance(tokens.get(0).getParts()));
+        assertThat(splitter.splitText(new StringReader(text)).toString(), is(tokens.toString()));
+    }
+
+    @Test
+    public void testHyphens() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().build();
+        List<SplitToken> tokens = splitter.splitText("Haus- und Gartenarbeit, Bahnhofs-Uhrturm -Verhaltensstörung-");
+        assertThat(tokens.size(), is(3));
+        assertThat(tokens.get(0).getParts(), is(splitter.splitWord("Gartenarbeit")));
+        assertThat(tokens.get(1).getStart(), is(24));
+        assertThat(tokens.get(1).getParts(), is(splitter.splitWord("Bahnhofs-Uhrturm")));
+        assertThat(tokens.get(2).getStart(), is(42));
+        assertThat(tokens.get(2).getEnd(), is(59));
+    }
+
+    @Test
+    public void testReaderChunks() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().build();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 50_000; i++) {
+            text.append("Die Verhaltensstörung der Bahnhofs-Uhrturm").append(i % 13 == 0 ? "-" : " ");
+            if (i % 97 == 0) {
+                char[] longWord = new char[20_000 + i];
+                Arrays.fill(longWord, 'a');
+                text.append(longWord).append("-Haustür ");
+            }
+        }
+        String expected = splitter.splitText(text).toString();
+        // a reader that returns a few characters per call, so that words are cut at all positions:
+        Reader reader = new StringReader(text.toString()) {
+            private int calls;
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1 + calls++ % 7));
+            }
+        };
+        assertThat(splitter.splitText(reader).toString(), is(expected));
+        assertThat(splitter.splitText(new StringReader(text.toString())).toString(), is(expected));
+    }
+
+    @Test
+    public void testWordsThatAreNotCompoundsAreSkipped() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().maximumWordLength(20).build();
+        assertThat(splitter.splitText("HAUSTÜR Haustür2 Haus Xyzqwvbrt " +
+                "Verhaltensstörungsbahnhofsuhr").size(), is(0));
+        assertThat(splitter.splitText("").size(), is(0));
+        assertThat(splitter.splitText("Haustür").size(), is(1));
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Daniel Naber (www.danielnaber.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielnaber.jwordsplitter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+
+public class SplitWordsTest {
+
+    @Test
+    public void testResultsAreInInputOrder() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().build();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            words.add("Verhaltensstörung");
+            words.add("Bahnhofsuhr" + (i % 7));
+            words.add("Xyzqwvbrt" + i);
+            words.add(null);
+        }
+        List<List<String>> expected = words.stream().map(splitter::splitWord).collect(Collectors.toList());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<List<String>> result = splitter.splitWords(words, pool);
+            assertThat(result, is(expected));
+            // repeated words are split only once:
+            assertThat(result.get(4), sameInstance(result.get(0)));
+            assertThat(splitter.splitWords(words.stream(), pool), is(expected));
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(splitter.splitWords(words), is(expected));
+        assertThat(splitter.splitWords(Stream.of("Verhaltensstörung")), is(Collections.singletonList(Arrays.asList("Verhaltens", "störung"))));
+        assertThat(splitter.splitWords(Collections.emptyList()), is(Collections.<List<String>>emptyList()));
+    }
+
+    @Test
+    public void testResultsCannotBeModified() throws IOException {
+        GermanWordSplitter splitter = new GermanWordSplitter(false);
+        List<List<String>> result = splitter.splitWords(Arrays.asList("Verhaltensstörung", "Verhaltensstörung"));
+        try {
+            result.get(0).add("x");
+            fail();
+        } catch (UnsupportedOperationException expected) {}
+        assertThat(result.get(1), is(Arrays.asList("Verhaltens", "störung")));
+    }
+
+    @Test(expected = InputTooLongException.class)
+    public void testInputTooLong() throws IOException {
+        GermanWordSplitter splitter = GermanWordSplitter.builder().maximumWordLength(10).build();
+        splitter.splitWords(Arrays.asList("Haus", "Verhaltensstörung"));
+    }
+
+}